@@ -0,0 +1,27 @@
+// k6: throughput de POST /api/users com e-mails sempre novos (caminho "e-mail livre" do validador)
+import http from 'k6/http'
+import { check } from 'k6'
+import exec from 'k6/execution'
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080'
+const RUN_ID = __ENV.RUN_ID || `${Date.now()}`
+
+export const options = {
+  vus: Number(__ENV.VUS || 32),
+  duration: __ENV.DURATION || '60s',
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+}
+
+export default function () {
+  const n = exec.scenario.iterationInTest
+  const body = JSON.stringify({
+    name: `Bench ${n}`,
+    email: `bench-${RUN_ID}-${n}@example.com`,
+    jobTitle: 'DESENVOLVEDOR',
+    systemRole: 'USER',
+    active: true,
+  })
+
+  const r = http.post(`${BASE_URL}/api/users`, body, { headers: { 'Content-Type': 'application/json' } })
+  check(r, { created: (res) => res.status === 201 })
+}
@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Compara o throughput de criação com e sem o índice de e-mails em memória (app.users.email-index.enabled).
+#
+# Uso: ./run.sh [jar] [duracao]
+# Requer k6 no PATH e o PostgreSQL do docker-compose no ar (localhost:5432).
+set -euo pipefail
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR=${1:-$DIR/../../target/users-backend-0.0.1-SNAPSHOT.jar}
+DURATION=${2:-60s}
+PORT=${PORT:-8080}
+
+export SPRING_PROFILES_ACTIVE=docker
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/appdb}
+
+wait_up() {
+  for _ in $(seq 1 120); do
+    curl -fs "http://localhost:$PORT/actuator/health" > /dev/null && return 0
+    sleep 1
+  done
+  echo "Aplicação não subiu" >&2
+  exit 1
+}
+
+for enabled in false true; do
+  java -jar "$JAR" --server.port="$PORT" --app.users.email-index.enabled="$enabled" \
+    --logging.level.org.hibernate.SQL=WARN --logging.level.org.hibernate.orm.jdbc.bind=WARN \
+    > "/tmp/users-bench-$enabled.log" 2>&1 &
+  pid=$!
+  wait_up
+
+  echo "== app.users.email-index.enabled=$enabled"
+  k6 run --quiet -e BASE_URL="http://localhost:$PORT" -e RUN_ID="idx-$enabled-$(date +%s)" \
+    -e DURATION="$DURATION" "$DIR/create.js" | grep -E "http_reqs|http_req_duration|checks"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
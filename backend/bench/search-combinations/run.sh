@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Plano e latência da busca para as 32 combinações dos 5 filtros (name, email, jobTitle, systemRole, active):
+# "antes" = SQL catch-all "(:x IS NULL OR ...)" com plano genérico (como o prepared statement do JDBC após
+# algumas execuções); "depois" = SQL só com os predicados informados (UserRepositoryCustomImpl).
+#
+# Uso: PGHOST=localhost PGUSER=appuser PGDATABASE=appdb ./run.sh [linhas] [repeticoes] [list|page]
+# Requer psql no PATH e um banco já migrado pelo Flyway (V7 para os índices compostos).
+set -euo pipefail
+
+ROWS=${1:-1000000}
+RUNS=${2:-5}
+MODE=${3:-list}
+DIR=$(cd "$(dirname "$0")" && pwd)
+
+count=$(psql -qtAX -c "SELECT count(*) FROM users")
+if [ "$count" -lt "$ROWS" ]; then
+  echo "Populando users com $ROWS linhas..."
+  psql -q -v rows="$ROWS" -f "$DIR/../search-trgm/seed.sql"
+fi
+
+# valores usados quando o filtro está ligado (mesma normalização do UserService)
+NAMES=(name email jobTitle systemRole active)
+VALUES=("'%souza%'" "'%empresa%'" "'gerente'" "'ADMIN'" "true")
+CATCH_ALL=(
+  "(\$1::text IS NULL OR LOWER(name) LIKE \$1)"
+  "(\$2::text IS NULL OR LOWER(email) LIKE \$2)"
+  "(\$3::text IS NULL OR LOWER(job_title) = \$3)"
+  "(\$4::text IS NULL OR system_role = \$4)"
+  "(\$5::boolean IS NULL OR active = \$5)"
+)
+DYNAMIC=("LOWER(name) LIKE \$1" "LOWER(email) LIKE \$2" "LOWER(job_title) = \$3" "system_role = \$4" "active = \$5")
+
+SUFFIX=""
+[ "$MODE" = page ] && SUFFIX=" ORDER BY id LIMIT 51"
+
+# mediana do "Execution Time" e os nós de acesso do plano
+measure() {
+  local prepare=$1 args=$2
+  local out
+  out=$(for _ in $(seq 1 "$RUNS"); do
+    psql -qtAX <<SQL
+SET plan_cache_mode = force_generic_plan;
+$prepare
+EXPLAIN (ANALYZE, COSTS OFF) EXECUTE q($args);
+SQL
+  done)
+  local ms plan
+  ms=$(grep "Execution Time" <<< "$out" | awk '{print $3}' | sort -n | awk '{v[NR]=$1} END {print v[int((NR+1)/2)]}')
+  plan=$(grep -oE "(Seq Scan|Index Scan|Index Only Scan|Bitmap Index Scan)( using [a-z_]+)? on users|(Bitmap Index Scan) on [a-z_]+" <<< "$out" \
+    | sed -E 's/ on users//; s/Index Only Scan using/IOS/; s/Index Scan using/IS/; s/Bitmap Index Scan on/BIS/; s/Seq Scan/SeqScan/' \
+    | sort -u | paste -sd, -)
+  printf "%s|%s" "$ms" "$plan"
+}
+
+printf "%-38s | %10s | %-40s | %10s | %-40s\n" "filtros ($MODE)" "antes ms" "plano antes" "depois ms" "plano depois"
+for mask in $(seq 0 31); do
+  label=()
+  args=()
+  where_new=""
+  for i in 0 1 2 3 4; do
+    if (( mask & (1 << i) )); then
+      label+=("${NAMES[$i]}")
+      args+=("${VALUES[$i]}")
+      where_new+=" AND ${DYNAMIC[$i]}"
+    else
+      args+=("NULL")
+    fi
+  done
+  where_new=${where_new# AND }
+  joined_args=$(IFS=,; echo "${args[*]}")
+  where_old=$(printf " AND %s" "${CATCH_ALL[@]}"); where_old=${where_old# AND }
+
+  # no "depois" os parâmetros dos filtros desligados continuam declarados, mas fora do SQL
+  types="text,text,text,text,boolean"
+  select="SELECT id, name, email, job_title, system_role, active, version FROM users"
+  before=$(measure "PREPARE q($types) AS $select WHERE $where_old$SUFFIX;" "$joined_args")
+  if [ -n "$where_new" ]; then
+    after=$(measure "PREPARE q($types) AS $select WHERE $where_new$SUFFIX;" "$joined_args")
+  else
+    after=$(measure "PREPARE q($types) AS $select$SUFFIX;" "$joined_args")
+  fi
+
+  printf "%-38s | %10s | %-40s | %10s | %-40s\n" "${label[*]:-(nenhum)}" \
+    "${before%%|*}" "${before#*|}" "${after%%|*}" "${after#*|}"
+done
@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Alocação por requisição e throughput de GET /api/users com resultados grandes,
+# comparando dois jars (ex.: antes e depois da leitura projetada em UserDto).
+#
+# Uso: PGHOST=localhost PGUSER=appuser PGDATABASE=appdb ./run.sh <jar-antes> <jar-depois> [linhas] [requisicoes]
+# Requer psql e k6 no PATH e o PostgreSQL do docker-compose no ar (localhost:5432).
+set -euo pipefail
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+BEFORE=$1
+AFTER=$2
+ROWS=${3:-200000}
+ITERATIONS=${4:-400}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:$PORT"
+
+export SPRING_PROFILES_ACTIVE=docker
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/appdb}
+
+count=$(psql -qtAX -c "SELECT count(*) FROM users")
+if [ "$count" -lt "$ROWS" ]; then
+  echo "Populando users com $ROWS linhas..."
+  psql -q -v rows="$ROWS" -f "$DIR/../search-trgm/seed.sql"
+fi
+
+wait_up() {
+  for _ in $(seq 1 120); do
+    curl -fs "$BASE_URL/actuator/health" > /dev/null && return 0
+    sleep 1
+  done
+  echo "Aplicação não subiu" >&2
+  exit 1
+}
+
+# bytes alocados no heap desde o início da JVM (Micrometer: jvm.gc.memory.allocated)
+allocated() {
+  curl -fs "$BASE_URL/actuator/metrics/jvm.gc.memory.allocated" \
+    | sed -E 's/.*"statistic":"COUNT","value":([0-9.E+]+).*/\1/' \
+    | awk '{printf "%.0f", $1}'
+}
+
+for label in antes depois; do
+  jar=$BEFORE
+  [ "$label" = depois ] && jar=$AFTER
+
+  java -Xmx1g -jar "$jar" --server.port="$PORT" \
+    --logging.level.org.hibernate.SQL=WARN --logging.level.org.hibernate.orm.jdbc.bind=WARN \
+    > "/tmp/users-bench-projection-$label.log" 2>&1 &
+  pid=$!
+  wait_up
+
+  # aquecimento (JIT, pool de conexões, cache de planos)
+  k6 run --quiet -e BASE_URL="$BASE_URL" -e ITERATIONS=80 "$DIR/search.js" > /dev/null
+
+  start=$(allocated)
+  echo "== $label ($jar)"
+  k6 run --quiet -e BASE_URL="$BASE_URL" -e ITERATIONS="$ITERATIONS" "$DIR/search.js" \
+    | grep -E "http_reqs|http_req_duration|checks"
+  end=$(allocated)
+
+  awk -v a="$start" -v b="$end" -v n="$ITERATIONS" \
+    'BEGIN { printf "alocação por requisição: %.1f MB\n", (b - a) / n / 1048576 }'
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
@@ -0,0 +1,25 @@
+// k6: GET /api/users com filtros que devolvem resultados grandes (milhares de linhas por resposta)
+import http from 'k6/http'
+import { check } from 'k6'
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080'
+
+const QUERIES = [
+  'jobTitle=DESENVOLVEDOR',
+  'systemRole=ADMIN',
+  'email=empresa',
+  'jobTitle=GERENTE&active=true',
+]
+
+export const options = {
+  vus: Number(__ENV.VUS || 8),
+  iterations: Number(__ENV.ITERATIONS || 400),
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+}
+
+export default function () {
+  const q = QUERIES[__ITER % QUERIES.length]
+  // sem If-None-Match: toda requisição executa a busca
+  const r = http.get(`${BASE_URL}/api/users?${q}`)
+  check(r, { ok: (res) => res.status === 200 })
+}
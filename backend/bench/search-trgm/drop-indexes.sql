@@ -0,0 +1,2 @@
+DROP INDEX IF EXISTS ix_users_name_trgm;
+DROP INDEX IF EXISTS ix_users_email_trgm;
@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Latência p50/p99 da busca "contém" por nome/e-mail, antes e depois dos índices trigram (V5).
+#
+# Uso: PGHOST=localhost PGUSER=appuser PGDATABASE=appdb ./run.sh [linhas] [duracao_s] [clientes]
+# Requer psql e pgbench no PATH e um banco já migrado pelo Flyway.
+set -euo pipefail
+
+ROWS=${1:-1000000}
+DURATION=${2:-60}
+CLIENTS=${3:-8}
+DIR=$(cd "$(dirname "$0")" && pwd)
+OUT=$(mktemp -d)
+
+count=$(psql -qtAX -c "SELECT count(*) FROM users")
+if [ "$count" -lt "$ROWS" ]; then
+  echo "Populando users com $ROWS linhas..."
+  psql -q -v rows="$ROWS" -f "$DIR/seed.sql"
+fi
+
+percentiles() {
+  # coluna 3 do log do pgbench = latência da transação em microssegundos
+  cat "$1"/pgbench_log.* | awk '{print $3}' | sort -n | awk '
+    { v[NR] = $1 }
+    END {
+      p50 = v[int(NR * 0.50) > 0 ? int(NR * 0.50) : 1]
+      p99 = v[int(NR * 0.99) > 0 ? int(NR * 0.99) : 1]
+      printf "amostras=%d p50=%.2fms p99=%.2fms\n", NR, p50 / 1000, p99 / 1000
+    }'
+}
+
+bench() {
+  local label=$1 dir="$OUT/$1"
+  mkdir -p "$dir"
+  (cd "$dir" && pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -l -f "$DIR/search.sql" > pgbench.txt)
+  printf "%-8s " "$label"
+  percentiles "$dir"
+}
+
+psql -q -f "$DIR/drop-indexes.sql"
+bench antes
+
+psql -q -f "$DIR/create-indexes.sql"
+bench depois
+
+echo "Logs completos em $OUT"
@@ -0,0 +1,6 @@
+-- Mesmo formato de predicado gerado por UserRepository.search para name/email "contém"
+\set n random(1, 1000000)
+SELECT id, name, email, job_title, system_role, active
+FROM users
+WHERE LOWER(name) LIKE '%' || :n || ' %'
+   OR LOWER(email) LIKE '%user' || :n || '@%';
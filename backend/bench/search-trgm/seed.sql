@@ -0,0 +1,12 @@
+-- Popula a tabela users com :rows usuários sintéticos (psql -v rows=1000000 -f seed.sql)
+INSERT INTO users (name, email, job_title, system_role, active)
+SELECT
+    'Usuario ' || g || ' ' || (ARRAY['Silva','Souza','Pereira','Costa','Almeida','Oliveira'])[1 + g % 6],
+    'user' || g || '@' || (ARRAY['example.com','gmail.com','empresa.com.br','outlook.com'])[1 + g % 4],
+    (ARRAY['DESENVOLVEDOR','ANALISTA','GERENTE','DESIGNER','SUPORTE'])[1 + g % 5],
+    (ARRAY['ADMIN','MANAGER','USER','USER','USER'])[1 + g % 5],
+    g % 7 <> 0
+FROM generate_series(1, :rows) AS g
+ON CONFLICT DO NOTHING;
+
+ANALYZE users;
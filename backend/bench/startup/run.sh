@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Tempo até a primeira requisição (GET /api/users/page) de cada modo de subida: jar, jar extraído,
+# AOT, AppCDS, AppCDS + AOT e, se existir target/users-backend, a imagem nativa.
+# Sobe um PostgreSQL embarcado (sem Docker) e mede [rodadas] processos novos por modo.
+#
+# Uso: ./run.sh [rodadas]
+# Requer Java 21 (a mesma JVM que gera o app.jsa) e Maven.
+set -euo pipefail
+
+RUNS=${1:-5}
+DIR=$(cd "$(dirname "$0")" && pwd)
+BACKEND="$DIR/../.."
+
+(cd "$BACKEND" && mvn -B -q -DskipTests -Pfast-startup package)
+(cd "$BACKEND/benchmarks" && mvn -B -q -DskipTests package)
+
+java -cp "$BACKEND/benchmarks/target/benchmarks.jar" com.example.users.bench.StartupBenchmark "$BACKEND/target" "$RUNS"
@@ -0,0 +1,42 @@
+// k6: carga mista (listagem filtrada, detalhe, estatísticas e criação) com muitos usuários virtuais,
+// para comparar o Tomcat com threads de plataforma e com threads virtuais
+import http from 'k6/http'
+import { check } from 'k6'
+import exec from 'k6/execution'
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080'
+const RUN_ID = __ENV.RUN_ID || `${Date.now()}`
+const MAX_ID = Number(__ENV.MAX_ID || 100000)
+
+export const options = {
+  vus: Number(__ENV.VUS || 400),
+  duration: __ENV.DURATION || '60s',
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+}
+
+export default function () {
+  const n = exec.scenario.iterationInTest
+  let r
+  switch (n % 10) {
+    case 0:
+      r = http.post(`${BASE_URL}/api/users`, JSON.stringify({
+        name: `Bench ${n}`,
+        email: `vt-${RUN_ID}-${n}@example.com`,
+        jobTitle: 'DESENVOLVEDOR',
+        systemRole: 'USER',
+        active: true,
+      }), { headers: { 'Content-Type': 'application/json' }, tags: { name: 'create' } })
+      break
+    case 1:
+    case 2:
+      r = http.get(`${BASE_URL}/api/users/page?jobTitle=GERENTE&size=50`, { tags: { name: 'page' } })
+      break
+    case 3:
+      r = http.get(`${BASE_URL}/api/users/stats`, { tags: { name: 'stats' } })
+      break
+    default:
+      r = http.get(`${BASE_URL}/api/users/${1 + (n * 7919) % MAX_ID}`, { tags: { name: 'detail' } })
+  }
+  // 503 = proteção do pool (modo virtual) recusando a requisição
+  check(r, { ok: (res) => res.status < 400, rejected: (res) => res.status !== 503 })
+}
@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Throughput e latência de cauda (p95/p99) com threads de plataforma x threads virtuais.
+#
+# Uso: PGHOST=localhost PGUSER=appuser PGDATABASE=appdb ./run.sh [jar] [duracao] [vus] [linhas]
+# Requer Java 21, psql e k6 no PATH e o PostgreSQL do docker-compose no ar (localhost:5432).
+set -euo pipefail
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR=${1:-$DIR/../../target/users-backend-0.0.1-SNAPSHOT.jar}
+DURATION=${2:-60s}
+VUS=${3:-400}
+ROWS=${4:-100000}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:$PORT"
+
+export SPRING_PROFILES_ACTIVE=docker
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/appdb}
+
+count=$(psql -qtAX -c "SELECT count(*) FROM users")
+if [ "$count" -lt "$ROWS" ]; then
+  echo "Populando users com $ROWS linhas..."
+  psql -q -v rows="$ROWS" -f "$DIR/../search-trgm/seed.sql"
+fi
+
+wait_up() {
+  for _ in $(seq 1 120); do
+    curl -fs "$BASE_URL/actuator/health" > /dev/null && return 0
+    sleep 1
+  done
+  echo "Aplicação não subiu" >&2
+  exit 1
+}
+
+for virtual in false true; do
+  java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+    --logging.level.org.hibernate.SQL=WARN --logging.level.org.hibernate.orm.jdbc.bind=WARN \
+    > "/tmp/users-bench-vt-$virtual.log" 2>&1 &
+  pid=$!
+  wait_up
+
+  # aquecimento
+  k6 run --quiet -e BASE_URL="$BASE_URL" -e VUS=20 -e DURATION=15s -e MAX_ID="$ROWS" "$DIR/mixed.js" > /dev/null
+
+  echo "== spring.threads.virtual.enabled=$virtual"
+  k6 run --quiet -e BASE_URL="$BASE_URL" -e RUN_ID="vt-$virtual-$(date +%s)" -e VUS="$VUS" \
+    -e DURATION="$DURATION" -e MAX_ID="$ROWS" "$DIR/mixed.js" | grep -E "http_reqs|http_req_duration|checks"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
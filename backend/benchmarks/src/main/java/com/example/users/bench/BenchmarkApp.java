@@ -0,0 +1,84 @@
+package com.example.users.bench;
+
+import com.example.users.UsersBackendApplication;
+import com.example.users.service.cache.UserEmailIndex;
+import com.example.users.service.stats.UserStatsReconciler;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sobe um PostgreSQL embarcado, o contexto Spring do backend (sem servidor web, com as migrações do Flyway)
+// e popula a tabela users com a mesma massa sintética de bench/search-trgm/seed.sql.
+final class BenchmarkApp implements AutoCloseable {
+
+    private static final String SEED = """
+            INSERT INTO users (name, email, job_title, system_role, active)
+            SELECT
+                'Usuario ' || g || ' ' || (ARRAY['Silva','Souza','Pereira','Costa','Almeida','Oliveira'])[1 + g % 6],
+                'user' || g || '@' || (ARRAY['example.com','gmail.com','empresa.com.br','outlook.com'])[1 + g % 4],
+                (ARRAY['DESENVOLVEDOR','ANALISTA','GERENTE','DESIGNER','SUPORTE'])[1 + g % 5],
+                (ARRAY['ADMIN','MANAGER','USER','USER','USER'])[1 + g % 5],
+                g % 7 <> 0
+            FROM generate_series(1, ?) AS g
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApp(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    static BenchmarkApp start(int rows, String... extraProperties) throws IOException {
+        var postgres = EmbeddedPostgres.builder().start();
+
+        var properties = new ArrayList<>(List.of(
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.jpa.open-in-view=false",
+                "logging.level.root=WARN",
+                // a reconciliação agendada não deve rodar no meio das medições
+                "app.users.stats.reconcile-interval=PT24H"
+        ));
+        properties.addAll(List.of(extraProperties));
+
+        var context = new SpringApplicationBuilder(UsersBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(String[]::new))
+                .run();
+
+        var jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update(SEED, rows);
+        jdbc.execute("ANALYZE users");
+
+        // índice de e-mails e contadores foram carregados na subida, antes da massa de dados
+        context.getBean(UserEmailIndex.class).load();
+        context.getBean(UserStatsReconciler.class).reconcile();
+
+        return new BenchmarkApp(postgres, context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    <T> List<T> beans(Class<T> type) {
+        return context.getBeanProvider(type).orderedStream().toList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.users.bench;
+
+import com.example.users.dto.UserDto;
+import com.example.users.model.SystemRole;
+import com.example.users.service.UserMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+// Corpo de GET /api/users em cada codificação: CPU de serialização (Score) e, no setup, o tamanho em bytes
+// sem e com gzip (linha "tamanho" na saída). columnar = UserColumnsDto (Accept: application/vnd.users.columnar+json)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EncodingBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"json", "smile", "cbor", "columnar"})
+    public String encoding;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper mapper;
+    private List<UserDto> users;
+
+    @Setup
+    public void setUp() throws IOException {
+        var json = Jackson2ObjectMapperBuilder.json().build();
+        mapper = switch (encoding) {
+            case "smile" -> json.copyWith(new SmileFactory());
+            case "cbor" -> json.copyWith(new CBORFactory());
+            default -> json;
+        };
+        String[] jobTitles = {"DESENVOLVEDOR", "ANALISTA", "GERENTE", "DESIGNER", "SUPORTE", "RH", "FINANCEIRO", "VENDAS"};
+        users = LongStream.rangeClosed(1, size)
+                .mapToObj(i -> new UserDto(i, "Usuario " + i + " Souza", "user" + i + "@empresa.com.br",
+                        jobTitles[(int) (i % jobTitles.length)], SystemRole.values()[(int) (i % 3)], i % 7 != 0, i % 5))
+                .toList();
+
+        if (!gzip) {
+            int raw = encode(false).length;
+            int compressed = encode(true).length;
+            System.out.printf("%ntamanho encoding=%s size=%d: %d bytes, gzip %d bytes%n", encoding, size, raw, compressed);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return encode(gzip);
+    }
+
+    private byte[] encode(boolean compress) throws IOException {
+        Object body = encoding.equals("columnar") ? UserMapper.toColumns(users) : users;
+        if (!compress) return mapper.writeValueAsBytes(body);
+
+        var out = new ByteArrayOutputStream();
+        try (var gz = new GZIPOutputStream(out)) {
+            mapper.writeValue(gz, body);
+        }
+        return out.toByteArray();
+    }
+}
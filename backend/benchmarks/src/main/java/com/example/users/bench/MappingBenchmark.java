@@ -0,0 +1,48 @@
+package com.example.users.bench;
+
+import com.example.users.dto.UserDto;
+import com.example.users.model.SystemRole;
+import com.example.users.model.User;
+import com.example.users.service.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+    private User user;
+    private UserDto dto;
+
+    @Setup
+    public void setUp() {
+        dto = new UserDto(42L, "Usuario 42 Souza", "user42@empresa.com.br", "DESENVOLVEDOR", SystemRole.USER, true, 3L);
+        user = UserMapper.toEntity(dto);
+        user.setVersion(3L);
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return UserMapper.toDto(user);
+    }
+
+    // inclui os LocalDateTime.now() de createdAt/updatedAt da entidade
+    @Benchmark
+    public User toEntity() {
+        return UserMapper.toEntity(dto);
+    }
+}
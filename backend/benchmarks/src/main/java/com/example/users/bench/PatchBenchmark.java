@@ -0,0 +1,53 @@
+package com.example.users.bench;
+
+import com.example.users.service.patch.UserPatchSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Conversão do body do PATCH em colunas (UserPatchSchema, que substituiu o applyPatch)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PatchBenchmark {
+
+    @Param({"active", "name+email", "all"})
+    public String body;
+
+    private Map<String, Object> updates;
+
+    @Setup
+    public void setUp() {
+        updates = switch (body) {
+            case "active" -> Map.of("active", false);
+            case "name+email" -> Map.of("name", "Ana Souza", "email", "ana.souza@empresa.com.br");
+            case "all" -> Map.of(
+                    "name", "Ana Souza",
+                    "email", "ana.souza@empresa.com.br",
+                    "jobTitle", "GERENTE",
+                    "systemRole", "manager",
+                    "active", "true"
+            );
+            default -> throw new IllegalArgumentException("body desconhecido: " + body);
+        };
+    }
+
+    @Benchmark
+    public Map<String, Object> toColumns() {
+        return UserPatchSchema.toColumns(updates);
+    }
+}
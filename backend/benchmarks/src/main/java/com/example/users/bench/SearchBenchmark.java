@@ -0,0 +1,77 @@
+package com.example.users.bench;
+
+import com.example.users.dto.UserDto;
+import com.example.users.dto.UserFilter;
+import com.example.users.model.SystemRole;
+import com.example.users.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// UserService.search ponta a ponta (JPQL + PostgreSQL embarcado) por combinação de filtros
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"none", "name", "name-short+systemRole", "email", "jobTitle", "systemRole+active", "name+jobTitle+active"})
+    public String filters;
+
+    private BenchmarkApp app;
+    private UserService service;
+
+    private String name;
+    private String email;
+    private String jobTitle;
+    private SystemRole systemRole;
+    private Boolean active;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        app = BenchmarkApp.start(rows);
+        service = app.bean(UserService.class);
+
+        for (String f : filters.split("\\+")) {
+            switch (f) {
+                case "none" -> { }
+                case "name" -> name = "souza";
+                case "name-short" -> name = "us";
+                case "email" -> email = "empresa";
+                case "jobTitle" -> jobTitle = "GERENTE";
+                case "systemRole" -> systemRole = SystemRole.ADMIN;
+                case "active" -> active = true;
+                default -> throw new IllegalArgumentException("filtro desconhecido: " + f);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+    }
+
+    @Benchmark
+    public List<UserDto> search() {
+        return service.searchIfModified(new UserFilter(name, email, jobTitle, systemRole, active), stamp -> false);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.users.bench;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Tempo até a primeira resposta (GET /api/users/page?size=1 com 200) de cada forma de subir o backend,
+// cada rodada em um processo novo contra o mesmo PostgreSQL embarcado (migrado por uma subida de aquecimento).
+// Mede do início do processo até a resposta: JVM, contexto Spring, Hibernate, Flyway e o primeiro request.
+//
+// Uso: java -cp target/benchmarks.jar com.example.users.bench.StartupBenchmark [dir target do backend] [rodadas]
+// Os modos sem artefato são pulados: jar (mvn package), extracted/aot/cds/cds+aot (mvn -Pfast-startup package)
+// e native (mvn -Pnative native:compile).
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private record Mode(String name, List<String> command, Path workDir) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args.length > 0 ? args[0] : "../target").toAbsolutePath().normalize();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        var modes = modes(target);
+        if (modes.isEmpty()) {
+            System.err.println("Nenhum artefato do backend em " + target + " (rode mvn package ou mvn -Pfast-startup package)");
+            System.exit(1);
+        }
+
+        try (var postgres = EmbeddedPostgres.builder().start()) {
+            String url = postgres.getJdbcUrl("postgres", "postgres");
+
+            // aplica as migrações fora da medição
+            measure(modes.getFirst(), url);
+
+            System.out.printf("%-10s | %8s | %8s | %8s%n", "modo", "min ms", "mediana", "max ms");
+            for (var mode : modes) {
+                var times = new ArrayList<Long>();
+                for (int i = 0; i < runs; i++) times.add(measure(mode, url));
+                times.sort(null);
+                System.out.printf("%-10s | %8d | %8d | %8d%n",
+                        mode.name(), times.getFirst(), times.get(times.size() / 2), times.getLast());
+            }
+        }
+    }
+
+    private static List<Mode> modes(Path target) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        var modes = new ArrayList<Mode>();
+
+        Path jar = findJar(target);
+        if (jar != null) modes.add(new Mode("jar", List.of(java, "-jar", jar.toString()), target));
+
+        Path extractedDir = target.resolve("fast-startup");
+        Path extracted = findJar(extractedDir);
+        if (extracted != null) {
+            String app = extracted.getFileName().toString();
+            modes.add(new Mode("extracted", List.of(java, "-jar", app), extractedDir));
+            modes.add(new Mode("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", app), extractedDir));
+            if (Files.exists(extractedDir.resolve("app.jsa"))) {
+                modes.add(new Mode("cds", List.of(java, "-XX:SharedArchiveFile=app.jsa", "-jar", app), extractedDir));
+                modes.add(new Mode("cds+aot", List.of(java, "-XX:SharedArchiveFile=app.jsa",
+                        "-Dspring.aot.enabled=true", "-jar", app), extractedDir));
+            }
+        }
+
+        Path nativeImage = target.resolve("users-backend");
+        if (Files.isExecutable(nativeImage)) modes.add(new Mode("native", List.of(nativeImage.toString()), target));
+
+        return modes;
+    }
+
+    private static Path findJar(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return null;
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().matches("users-backend-.*\\.jar")).findFirst().orElse(null);
+        }
+    }
+
+    private static long measure(Mode mode, String jdbcUrl) throws Exception {
+        int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        var command = new ArrayList<>(mode.command());
+        command.addAll(List.of("--spring.profiles.active=docker", "--server.port=" + port, "--logging.level.root=WARN"));
+
+        var builder = new ProcessBuilder(command)
+                .directory(mode.workDir().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(Files.createTempFile("users-startup-" + mode.name().replace('+', '-'), ".log").toFile());
+        builder.environment().put("SPRING_DATASOURCE_URL", jdbcUrl);
+        builder.environment().put("SPRING_DATASOURCE_USERNAME", "postgres");
+        builder.environment().put("SPRING_DATASOURCE_PASSWORD", "postgres");
+
+        var client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/page?size=1")).build();
+
+        long start = System.nanoTime();
+        var process = builder.start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) throw new IllegalStateException("Modo " + mode.name() + " encerrou na subida");
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // ainda não escuta na porta
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Modo " + mode.name() + " não respondeu em " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        }
+    }
+}
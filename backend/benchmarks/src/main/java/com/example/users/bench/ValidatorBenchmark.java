@@ -0,0 +1,85 @@
+package com.example.users.bench;
+
+import com.example.users.dto.UserDto;
+import com.example.users.model.SystemRole;
+import com.example.users.model.User;
+import com.example.users.service.UserMapper;
+import com.example.users.service.validacoes.create.ValidadorCriacaoUsuario;
+import com.example.users.service.validacoes.patch.ValidadorPatchUsuario;
+import com.example.users.service.validacoes.update.ValidadorAtualizacaoUsuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cadeias de validadores de criação/atualização/PATCH com e-mail livre, com e sem o índice de e-mails
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ValidatorBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public String emailIndex;
+
+    private BenchmarkApp app;
+    private List<ValidadorCriacaoUsuario> criacao;
+    private List<ValidadorAtualizacaoUsuario> atualizacao;
+    private List<ValidadorPatchUsuario> patch;
+
+    private UserDto newUser;
+    private User existing;
+    private Map<String, Object> updates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        app = BenchmarkApp.start(rows, "app.users.email-index.enabled=" + emailIndex);
+        criacao = app.beans(ValidadorCriacaoUsuario.class);
+        atualizacao = app.beans(ValidadorAtualizacaoUsuario.class);
+        patch = app.beans(ValidadorPatchUsuario.class);
+
+        newUser = new UserDto(null, "Novo Usuario", "novo.usuario@empresa.com.br", "ANALISTA", SystemRole.USER, true, null);
+        existing = UserMapper.toEntity(new UserDto(1L, "Usuario 1 Souza", "user1@gmail.com", "ANALISTA", SystemRole.MANAGER, true, 0L));
+        updates = Map.of("systemRole", "ADMIN", "active", false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        app.close();
+    }
+
+    @Benchmark
+    public void criacao() {
+        criacao.forEach(v -> v.validar(newUser));
+    }
+
+    // e-mail alterado: passa pela verificação de unicidade
+    @Benchmark
+    public void atualizacao() {
+        atualizacao.forEach(v -> v.validar(existing.getId(), newUser, existing));
+    }
+
+    @Benchmark
+    public void patch() {
+        patch.forEach(v -> v.validar(existing.getId(), updates));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.users.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+
+    // cache limitado por tamanho e TTL; recordStats alimenta as métricas cache.gets/cache.evictions do actuator
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.users.cache.max-size:10000}") long maxSize,
+            @Value("${app.users.cache.ttl:PT5M}") Duration ttl
+    ) {
+        var manager = new CaffeineCacheManager();
+        manager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        manager.setCacheNames(List.of(USERS_CACHE));
+        manager.setAllowNullValues(false);
+        return manager;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.users.config;
+
+import com.example.users.web.SqlStatementCounter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Envolve o DataSource (Hikari) com o datasource-proxy para observar cada instrução SQL executada
+// (contagem por requisição e log de consultas lentas)
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) return bean;
+
+                if (bean instanceof HikariDataSource hikari) dataSource = bounded(hikari, env);
+
+                var slowQueryLogger = new SlowQueryLogger(
+                        env.getProperty("app.users.sql.slow-threshold", Duration.class, Duration.ofMillis(200)),
+                        env.getProperty("app.users.sql.sample-rate", Double.class, 0.0)
+                );
+
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new SqlStatementCounter())
+                        .listener(slowQueryLogger)
+                        .proxyResultSet(slowQueryLogger)
+                        .build();
+            }
+        };
+    }
+
+    // com threads virtuais, o acesso ao banco fica limitado ao tamanho do pool (ver BoundedDataSource)
+    static DataSource bounded(HikariDataSource hikari, Environment env) {
+        if (!env.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) return hikari;
+        var maxWait = env.getProperty("app.users.db.max-wait", Duration.class, Duration.ofSeconds(2));
+        return new BoundedDataSource(hikari, hikari.getMaximumPoolSize(), maxWait);
+    }
+
+    // users.db.waiting: requisições aguardando conexão no BoundedDataSource (só com threads virtuais)
+    @Bean
+    public MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                if (!dataSource.isWrapperFor(BoundedDataSource.class)) return;
+                Gauge.builder("users.db.waiting", dataSource.unwrap(BoundedDataSource.class), BoundedDataSource::getWaiting)
+                        .description("Threads aguardando uma conexão livre")
+                        .register(registry);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.users.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Migrações na subida: "migrate" (padrão) ou "skip", quando outro passo do deploy já aplicou o schema.
+// Decidido em tempo de execução (e não por spring.flyway.enabled) para valer também no build AOT,
+// em que as condições dos beans ficam fixas no build.
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${app.users.flyway.on-startup:migrate}") String onStartup) {
+        return flyway -> {
+            if ("skip".equalsIgnoreCase(onStartup)) {
+                log.info("Migrações do Flyway não executadas na subida (app.users.flyway.on-startup=skip)");
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+}
@@ -5,10 +5,13 @@ import io.swagger.v3.oas.models.info.License;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.ExternalDocumentation;
 import io.swagger.v3.oas.models.OpenAPI;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+// springdoc monta a especificação no primeiro GET /v3/api-docs; em produção pode ser desligado (APP_OPENAPI_ENABLED=false)
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "true", matchIfMissing = true)
 public class OpenApiConfig {
 
     @Bean
@@ -0,0 +1,46 @@
+package com.example.users.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+// Com app.users.datasource.replicas (URLs JDBC separadas por vírgula) o DataSource da aplicação passa a ser o
+// roteador primário/réplicas; sem a propriedade, vale o DataSource único da autoconfiguração do Spring Boot.
+@Configuration
+@ConditionalOnExpression("!'${app.users.datasource.replicas:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicaRouter readReplicaRouter(DataSourceProperties properties, Environment env,
+                                               ObjectProvider<MeterRegistry> registry) {
+        var primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(env).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) primary.setPoolName("users-primary");
+
+        List<String> replicas = StringUtils.commaDelimitedListToSet(env.getProperty("app.users.datasource.replicas", ""))
+                .stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        var maxLag = env.getProperty("app.users.datasource.replica-max-lag", Duration.class, Duration.ofSeconds(2));
+
+        return new ReadReplicaRouter(primary, replicas, maxLag, env, registry.getIfAvailable());
+    }
+
+    // o BeanPostProcessor do DataSourceProxyConfig envolve este bean (contagem e log de SQL valem para as réplicas)
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRouter router) {
+        return router.getDataSource();
+    }
+}
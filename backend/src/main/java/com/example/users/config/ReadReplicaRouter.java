@@ -0,0 +1,151 @@
+package com.example.users.config;
+
+import com.example.users.web.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Primário + réplicas de leitura. Transações somente leitura (a conexão chega com setReadOnly(true)) vão para
+// uma réplica saudável em round-robin; as demais, as leituras fora de transação e as de quem escreveu há pouco
+// (ReadYourWrites) vão para o primário. Sem réplica saudável, ou se ela recusar a conexão, lê do primário.
+@Slf4j
+public class ReadReplicaRouter implements AutoCloseable {
+
+    // atraso em segundos; 0 quando a réplica já aplicou tudo que recebeu (ou quando não é uma réplica)
+    private static final String LAG_SQL = """
+            SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                   ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END, 0)
+            """;
+
+    private static final Duration REPLICA_CONNECTION_TIMEOUT = Duration.ofSeconds(1);
+
+    private final HikariDataSource primaryPool;
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration maxLag;
+    private final DataSource dataSource;
+
+    public ReadReplicaRouter(HikariDataSource primaryPool, List<String> replicaUrls, Duration maxLag,
+                             Environment env, MeterRegistry registry) {
+        this.primaryPool = primaryPool;
+        this.maxLag = maxLag;
+
+        // mesma configuração do primário (credenciais, tamanho do pool), mas sem esperar 30s por uma réplica fora do ar
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            var pool = new HikariDataSource();
+            primaryPool.copyStateTo(pool);
+            pool.setJdbcUrl(replicaUrls.get(i));
+            pool.setPoolName("users-replica-" + (i + 1));
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT.toMillis());
+            if (registry != null) pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.add(new Replica(pool, DataSourceProxyConfig.bounded(pool, env)));
+        }
+        if (registry != null) primaryPool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        this.primary = DataSourceProxyConfig.bounded(primaryPool, env);
+
+        // a conexão real só é obtida na primeira instrução, quando o read-only da transação já foi aplicado
+        var lazy = new LazyConnectionDataSourceProxy(primary);
+        lazy.setReadOnlyDataSource(new ReadOnlyDataSource());
+        this.dataSource = lazy;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    // réplicas começam fora do rodízio até a primeira verificação
+    @Scheduled(fixedDelayString = "${app.users.datasource.replica-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (var replica : replicas) {
+            String problem = null;
+            try (var con = replica.pool.getConnection(); var st = con.createStatement()) {
+                st.setQueryTimeout(2);
+                try (var rs = st.executeQuery(LAG_SQL)) {
+                    rs.next();
+                    double lagSeconds = rs.getDouble(1);
+                    if (lagSeconds * 1000 > maxLag.toMillis()) problem = "atraso de %.1fs".formatted(lagSeconds);
+                }
+            } catch (SQLException e) {
+                problem = e.getMessage();
+            }
+            replica.update(problem);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(r -> r.pool.close());
+        primaryPool.close();
+    }
+
+    private Replica nextHealthy() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            var replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) return replica;
+        }
+        return null;
+    }
+
+    private class ReadOnlyDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (ReadYourWrites.isActive()) return primary.getConnection();
+
+            var replica = nextHealthy();
+            if (replica == null) return primary.getConnection();
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.update(e.getMessage());
+                return primary.getConnection();
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            // os pools (Hikari) usam as credenciais da configuração
+            throw new SQLFeatureNotSupportedException("Credenciais por conexão não são suportadas pelas réplicas de leitura.");
+        }
+    }
+
+    private static class Replica {
+
+        private final HikariDataSource pool;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private boolean checked;
+
+        Replica(HikariDataSource pool, DataSource dataSource) {
+            this.pool = pool;
+            this.dataSource = dataSource;
+        }
+
+        // loga só as mudanças de estado
+        synchronized void update(String problem) {
+            boolean nowHealthy = problem == null;
+            if (checked && nowHealthy == healthy) return;
+            checked = true;
+            healthy = nowHealthy;
+            if (nowHealthy) log.info("Réplica {} disponível para leitura", pool.getPoolName());
+            else log.warn("Réplica {} fora do rodízio: {}", pool.getPoolName(), problem);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.users.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Log de consultas lentas (acima de app.users.sql.slow-threshold) e de uma amostra das demais
+// (app.users.sql.sample-rate), uma linha por instrução: fingerprint, duração e linhas.
+// Em SELECT as linhas só são conhecidas ao fechar o ResultSet, então a entrada é escrita nesse momento.
+@Slf4j
+public class SlowQueryLogger implements QueryExecutionListener, ResultSetProxyLogicFactory {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAM_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private record Entry(String sql, long elapsedMs, boolean slow) {
+    }
+
+    // ResultSet (objeto real do driver) -> consulta que será registrada quando ele for fechado
+    private static final ThreadLocal<Map<ResultSet, Entry>> PENDING = ThreadLocal.withInitial(WeakHashMap::new);
+
+    private final long thresholdMs;
+    private final double sampleRate;
+
+    public SlowQueryLogger(Duration threshold, double sampleRate) {
+        this.thresholdMs = threshold.toMillis();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        boolean slow = elapsedMs >= thresholdMs;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) return;
+
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        var entry = new Entry(sql, elapsedMs, slow);
+
+        Object result = execInfo.getResult();
+        if (execInfo.isSuccess() && result instanceof ResultSet rs) {
+            PENDING.get().put(rs instanceof ProxyJdbcObject proxy ? (ResultSet) proxy.getTarget() : rs, entry);
+        } else {
+            write(entry, execInfo.isSuccess() ? updateCount(result) : -1);
+        }
+    }
+
+    // conta as linhas lidas de cada ResultSet; só consulta as pendências no close()
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        return new SimpleResultSetProxyLogic(resultSet, connectionInfo, proxyConfig) {
+            private long rows;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object value = super.invoke(proxy, method, args);
+                String name = method.getName();
+                if (name.equals("next") && Boolean.TRUE.equals(value)) {
+                    rows++;
+                } else if (name.equals("close")) {
+                    var entry = PENDING.get().remove(resultSet);
+                    if (entry != null) write(entry, rows);
+                }
+                return value;
+            }
+        };
+    }
+
+    private void write(Entry entry, long rows) {
+        String fingerprint = fingerprint(entry.sql());
+        String id = String.format("%08x", fingerprint.hashCode());
+        if (entry.slow()) {
+            log.warn("Consulta lenta fingerprint={} elapsedMs={} rows={} sql={}", id, entry.elapsedMs(), rows, fingerprint);
+        } else {
+            log.info("Consulta amostrada fingerprint={} elapsedMs={} rows={} sql={}", id, entry.elapsedMs(), rows, fingerprint);
+        }
+    }
+
+    // mesma forma de consulta -> mesmo fingerprint, independente de valores e do tamanho de listas IN (...)
+    static String fingerprint(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER.matcher(s).replaceAll("?");
+        s = PARAM_LIST.matcher(s).replaceAll("(?+)");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    private static long updateCount(Object result) {
+        if (result instanceof Number n) return n.longValue();
+        if (result instanceof int[] counts) return Arrays.stream(counts).asLongStream().sum();
+        if (result instanceof long[] counts) return Arrays.stream(counts).sum();
+        return -1;
+    }
+}
@@ -1,16 +1,43 @@
 package com.example.users.controller;
 
+import com.example.users.dto.BatchPatchDto;
+import com.example.users.dto.BatchPatchResultDto;
+import com.example.users.dto.BulkIdsDto;
+import com.example.users.dto.BulkResultDto;
+import com.example.users.dto.ImportResultDto;
+import com.example.users.dto.UserBatchDto;
+import com.example.users.dto.UserChangesDto;
+import com.example.users.dto.UserColumnsDto;
 import com.example.users.dto.UserDto;
+import com.example.users.dto.UserFilter;
+import com.example.users.dto.UserPageDto;
+import com.example.users.dto.UserTrendsDto;
 import com.example.users.model.SystemRole;
+import com.example.users.service.UserMapper;
 import com.example.users.service.UserService;
+import com.example.users.service.eventos.UserEventHub;
+import com.example.users.service.exportacao.UserExportFormat;
+import com.example.users.service.exportacao.UserExportService;
+import com.example.users.service.importacao.UserImportService;
+import com.example.users.service.lote.UserBatchService;
+import com.example.users.service.sincronizacao.UserChangesService;
+import com.example.users.service.stats.UserTrendsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -18,15 +45,34 @@ import java.util.Map;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final String APPLICATION_COLUMNAR_JSON = "application/vnd.users.columnar+json";
+
     private final UserService service;
+    private final UserImportService importService;
+    private final UserExportService exportService;
+    private final UserChangesService changesService;
+    private final UserEventHub eventHub;
+    private final UserBatchService batchService;
+    private final UserTrendsService trendsService;
 
-    public UserController(UserService service) {
+    public UserController(UserService service, UserImportService importService, UserExportService exportService,
+                          UserChangesService changesService, UserEventHub eventHub, UserBatchService batchService,
+                          UserTrendsService trendsService) {
         this.service = service;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.changesService = changesService;
+        this.eventHub = eventHub;
+        this.batchService = batchService;
+        this.trendsService = trendsService;
     }
 
     @Operation(
             summary = "Lista usuários (com filtros opcionais e combináveis)",
-            description = "Retorna todos os usuários ou aplica filtros combinados via query params."
+            description = "Retorna todos os usuários ou aplica filtros combinados via query params. "
+                    + "Além de JSON, responde em CBOR (Accept: application/cbor) ou Smile (application/x-jackson-smile)."
     )
     @GetMapping
     public ResponseEntity<List<UserDto>> getAll(
@@ -43,15 +89,147 @@ public class UserController {
             @RequestParam(required = false) SystemRole systemRole,
 
             @Parameter(description = "Filtro por status ativo/inativo")
+            @RequestParam(required = false) Boolean active,
+
+            WebRequest request
+    ) {
+        // ETag decidido pelo carimbo da tabela, antes de executar a busca (na mesma transação)
+        var users = service.searchIfModified(new UserFilter(name, email, jobTitle, systemRole, active),
+                stamp -> request.checkNotModified(listEtag(request, stamp)));
+        if (users == null) return null;
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(users);
+    }
+
+    @Operation(
+            summary = "Lista usuários em colunas",
+            description = "Mesmos filtros da listagem. Um array por campo; jobTitle e systemRole como dicionário + códigos."
+    )
+    @GetMapping(produces = APPLICATION_COLUMNAR_JSON)
+    public ResponseEntity<UserColumnsDto> getAllColumnar(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String jobTitle,
+            @RequestParam(required = false) SystemRole systemRole,
+            @RequestParam(required = false) Boolean active,
+            WebRequest request
+    ) {
+        var users = service.searchIfModified(new UserFilter(name, email, jobTitle, systemRole, active),
+                stamp -> request.checkNotModified(listEtag(request, stamp)));
+        if (users == null) return null;
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(UserMapper.toColumns(users));
+    }
+
+    @Operation(
+            summary = "Lista usuários paginados por cursor",
+            description = "Paginação keyset (ordenada por id). Use o nextCursor da resposta para buscar a próxima página."
+    )
+    @GetMapping("/page")
+    public ResponseEntity<UserPageDto> getPage(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String jobTitle,
+            @RequestParam(required = false) SystemRole systemRole,
+            @RequestParam(required = false) Boolean active,
+
+            @Parameter(description = "Cursor retornado em nextCursor pela página anterior")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Quantidade de registros por página")
+            @RequestParam(required = false) Integer size
+    ) {
+        var filter = new UserFilter(name, email, jobTitle, systemRole, active);
+        return ResponseEntity.ok(service.searchPage(filter, cursor, size));
+    }
+
+    @Operation(
+            summary = "Lista usuários em streaming (NDJSON)",
+            description = "Um usuário JSON por linha, lido do banco com fetch size; o consumo de memória não cresce com o resultado."
+    )
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String jobTitle,
+            @RequestParam(required = false) SystemRole systemRole,
             @RequestParam(required = false) Boolean active
     ) {
-        return ResponseEntity.ok(service.search(name, email, jobTitle, systemRole, active));
+        var filter = new UserFilter(name, email, jobTitle, systemRole, active);
+        StreamingResponseBody body = out -> exportService.export(filter, UserExportFormat.NDJSON, false, out);
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(
+            summary = "Exporta usuários (CSV ou NDJSON)",
+            description = "Aceita os mesmos filtros da listagem. Lê do banco com cursor e escreve direto na resposta; gzip=true compacta o arquivo."
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String jobTitle,
+            @RequestParam(required = false) SystemRole systemRole,
+            @RequestParam(required = false) Boolean active,
+
+            @Parameter(description = "Formato do arquivo: csv (padrão), ndjson, cbor ou smile")
+            @RequestParam(required = false) String format,
+
+            @Parameter(description = "Compacta o arquivo com gzip")
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        var filter = new UserFilter(name, email, jobTitle, systemRole, active);
+        var exportFormat = UserExportFormat.parse(format);
+
+        String filename = "users." + exportFormat.extension() + (gzip ? ".gz" : "");
+        String contentType = gzip ? "application/gzip" : exportFormat.contentType();
+
+        StreamingResponseBody body = out -> exportService.export(filter, exportFormat, gzip, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Alterações desde o último token (sincronização incremental)",
+            description = "Sem since devolve todos os usuários e o primeiro token. Com since devolve apenas os criados/alterados "
+                    + "e os ids removidos desde então (itens podem se repetir entre chamadas). Token expirado: 410."
+    )
+    @GetMapping("/changes")
+    public ResponseEntity<UserChangesDto> changes(
+            @Parameter(description = "Token retornado em nextToken pela chamada anterior")
+            @RequestParam(required = false) String since
+    ) {
+        return ResponseEntity.ok(changesService.changesSince(since));
+    }
+
+    @Operation(
+            summary = "Eventos de alteração em tempo real (Server-Sent Events)",
+            description = "Evento \"change\": { changes: [{ type, user }], stats: variação de byJobTitle/bySystemRole/byActive, resync } "
+                    + "(resync = lote grande enviado sem as linhas: recarregar a lista). "
+                    + "Reconectando com Last-Event-ID, os eventos perdidos são reenviados; \"resync\" pede recarga completa."
+    )
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return eventHub.subscribe(lastEventId);
     }
 
     @Operation(summary = "Detalhes do usuário", description = "Retorna os detalhes de um usuário específico com base no ID.")
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findById(id));
+    public ResponseEntity<UserDto> getById(@PathVariable Long id, WebRequest request) {
+        var user = service.findById(id);
+        if (request.checkNotModified(userEtag(user))) return null;
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(user);
     }
 
     @Operation(summary = "Cria um novo usuário", description = "Adiciona um novo usuário ao sistema.")
@@ -61,10 +239,36 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
-    @Operation(summary = "Atualiza um usuário", description = "Atualiza os dados do usuário com base no ID.")
+    @Operation(
+            summary = "Importa usuários em lote (CSV)",
+            description = "Cabeçalho: name,email,jobTitle,systemRole,active. Linhas inválidas ou com e-mail já cadastrado são reportadas sem interromper a importação."
+    )
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultDto> importCsv(InputStream body) {
+        return ResponseEntity.ok(importService.importCsv(body));
+    }
+
+    @Operation(
+            summary = "Importa usuários em lote (array JSON)",
+            description = "Mesmo formato do POST /api/users, em um array. Erros são reportados por item."
+    )
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportResultDto> importJson(InputStream body) {
+        return ResponseEntity.ok(importService.importJson(body));
+    }
+
+    @Operation(
+            summary = "Atualiza um usuário",
+            description = "Atualiza os dados do usuário com base no ID. Com If-Match (ETag do GET), responde 412 se o usuário mudou desde a leitura."
+    )
     @PutMapping("/{id}")
-    public ResponseEntity<UserDto> update(@PathVariable Long id, @Valid @RequestBody UserDto dto) {
-        return ResponseEntity.ok(service.update(id, dto));
+    public ResponseEntity<UserDto> update(
+            @PathVariable Long id,
+            @Valid @RequestBody UserDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        var updated = service.update(id, dto, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(userEtag(updated)).body(updated);
     }
 
     @Operation(summary = "Deleta um usuário", description = "Remove o usuário do sistema com base no ID.")
@@ -74,15 +278,121 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Atualiza parcialmente um usuário", description = "Atualiza apenas os campos enviados no body.")
+    @Operation(
+            summary = "Atualiza parcialmente um usuário",
+            description = "Atualiza apenas os campos enviados no body. Aceita If-Match como o PUT."
+    )
     @PatchMapping("/{id}")
-    public ResponseEntity<UserDto> patch(@PathVariable Long id, @RequestBody Map<String, Object> updates) {
-        return ResponseEntity.ok(service.patch(id, updates));
+    public ResponseEntity<UserDto> patch(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> updates,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        var patched = service.patch(id, updates, expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(userEtag(patched)).body(patched);
+    }
+
+    @Operation(
+            summary = "Desativa usuários em lote por filtro",
+            description = "Aceita os mesmos filtros da listagem (ao menos um além de active). Executa um único UPDATE e retorna a quantidade desativada."
+    )
+    @PostMapping("/bulk/deactivate")
+    public ResponseEntity<BulkResultDto> deactivateMatching(@RequestBody UserFilter filter) {
+        return ResponseEntity.ok(new BulkResultDto(service.deactivateMatching(filter)));
+    }
+
+    @Operation(
+            summary = "Remove usuários em lote por ids",
+            description = "Executa um único DELETE e retorna a quantidade removida; ids inexistentes são ignorados."
+    )
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkResultDto> deleteByIds(@Valid @RequestBody BulkIdsDto body) {
+        return ResponseEntity.ok(new BulkResultDto(service.deleteByIds(body.getIds())));
+    }
+
+    @Operation(
+            summary = "Busca vários usuários por id",
+            description = "Uma consulta para todos os ids; devolve os usuários na ordem pedida e, em missing, os ids inexistentes."
+    )
+    @PostMapping("/batch-get")
+    public ResponseEntity<UserBatchDto> batchGet(@Valid @RequestBody BulkIdsDto body) {
+        return ResponseEntity.ok(batchService.findByIds(body.getIds()));
+    }
+
+    @Operation(
+            summary = "Aplica vários PATCHes em uma transação",
+            description = "Cada item tem id, version opcional (como o If-Match) e changes (mesmo body do PATCH). "
+                    + "Os válidos são gravados em um lote JDBC; cada item recebe o status que o PATCH individual daria."
+    )
+    @PostMapping("/batch-patch")
+    public ResponseEntity<BatchPatchResultDto> batchPatch(@Valid @RequestBody BatchPatchDto body) {
+        return ResponseEntity.ok(batchService.patch(body.getItems()));
     }
 
     @Operation(summary = "Estatísticas dos usuários", description = "Distribuição por jobTitle, systemRole e status ativo/inativo.")
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getStats() {
-        return ResponseEntity.ok(service.getStats());
+    public ResponseEntity<Map<String, Object>> getStats(WebRequest request) {
+        if (request.checkNotModified("stats-" + service.getStatsVersion())) return null;
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(service.getStats());
+    }
+
+    @Operation(
+            summary = "Tendências de cadastros, ativações, desativações e remoções",
+            description = "Série por hora ou por dia (UTC) lida dos agregados, sem varrer a tabela de usuários. "
+                    + "Buckets sem eventos são omitidos. Antes da criação dos agregados só há cadastros (backfill)."
+    )
+    @GetMapping("/stats/trends")
+    public ResponseEntity<UserTrendsDto> getTrends(
+            @Parameter(description = "hour ou day (padrão)")
+            @RequestParam(required = false) String granularity,
+
+            @Parameter(description = "Início (2025-01-31 ou 2025-01-31T14:00, UTC); padrão: 30 dias ou 48 horas antes de to")
+            @RequestParam(required = false) String from,
+
+            @Parameter(description = "Fim exclusivo; padrão: até o bucket atual")
+            @RequestParam(required = false) String to,
+
+            @Parameter(description = "systemRole, jobTitle ou active")
+            @RequestParam(required = false) String groupBy,
+
+            @RequestParam(required = false) SystemRole systemRole,
+            @RequestParam(required = false) String jobTitle,
+            @RequestParam(required = false) Boolean active
+    ) {
+        return ResponseEntity.ok(trendsService.trends(granularity, from, to, groupBy, systemRole, jobTitle, active));
+    }
+
+    // cada representação da listagem (JSON, CBOR, Smile, colunas) tem seu próprio ETag; fraco (W/) porque o
+    // Tomcat não comprime respostas com ETag forte (o mesmo ETag valeria para o corpo com e sem gzip)
+    private static String listEtag(WebRequest request, long stamp) {
+        String accept = String.valueOf(request.getHeader(HttpHeaders.ACCEPT));
+        String variant = accept.contains(APPLICATION_COLUMNAR_JSON) ? "-columnar"
+                : accept.contains("application/cbor") ? "-cbor"
+                : accept.contains("application/x-jackson-smile") ? "-smile"
+                : "";
+        return "W/\"users-" + stamp + variant + "\"";
+    }
+
+    private static String userEtag(UserDto user) {
+        return "user-" + user.getId() + "-" + user.getVersion();
+    }
+
+    // If-Match: "user-{id}-{version}" -> version; "*" ou ausente -> sem pré-condição;
+    // qualquer outro valor (inclusive ETag fraco, W/...) nunca casa com a versão atual (412)
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+
+        String tag = ifMatch.trim().replace("\"", "");
+
+        String prefix = "user-" + id + "-";
+        if (tag.startsWith(prefix)) {
+            try {
+                return Long.valueOf(tag.substring(prefix.length()));
+            } catch (NumberFormatException ignored) {
+                // cai no -1 abaixo
+            }
+        }
+        return -1L;
     }
 }
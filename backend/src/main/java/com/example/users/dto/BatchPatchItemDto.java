@@ -0,0 +1,23 @@
+package com.example.users.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPatchItemDto {
+
+    @NotNull(message = "Id is required")
+    private Long id;
+
+    // versão lida pelo cliente, como o If-Match do PATCH (null = sem pré-condição)
+    private Long version;
+
+    // mesmo body do PATCH /api/users/{id}
+    private Map<String, Object> changes;
+}
@@ -0,0 +1,21 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPatchItemResultDto {
+
+    private Long id;
+
+    // o status que o PATCH individual devolveria: 200, 400, 404, 409 ou 412
+    private int status;
+
+    // estado após o PATCH (null em caso de erro)
+    private UserDto user;
+
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPatchResultDto {
+
+    private int updated;
+
+    private int failed;
+
+    // um resultado por item, na ordem enviada
+    private List<BatchPatchItemResultDto> results;
+}
@@ -0,0 +1,17 @@
+package com.example.users.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIdsDto {
+
+    @NotEmpty(message = "At least one id is required")
+    private List<Long> ids;
+}
@@ -0,0 +1,14 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResultDto {
+
+    // quantidade de usuários efetivamente alterados/removidos
+    private int affected;
+}
@@ -0,0 +1,18 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDto {
+
+    // posição do registro no arquivo (1 = primeiro registro, sem contar o cabeçalho)
+    private long row;
+
+    private String email;
+
+    private String message;
+}
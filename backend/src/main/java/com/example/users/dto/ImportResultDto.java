@@ -0,0 +1,25 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+
+    private long total;
+
+    private long imported;
+
+    private long failed;
+
+    private List<ImportErrorDto> errors;
+
+    private long elapsedMs;
+
+    private double rowsPerSecond;
+}
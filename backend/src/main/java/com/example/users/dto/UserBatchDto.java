@@ -0,0 +1,19 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchDto {
+
+    // na ordem dos ids pedidos (ids repetidos aparecem uma vez)
+    private List<UserDto> items;
+
+    // ids pedidos que não existem
+    private List<Long> missing;
+}
@@ -0,0 +1,22 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangesDto {
+
+    // criados ou alterados desde o token (pode repetir itens da chamada anterior: aplicar por id/version)
+    private List<UserDto> changed;
+
+    // ids removidos desde o token
+    private List<Long> deleted;
+
+    // token para a próxima chamada (since)
+    private String nextToken;
+}
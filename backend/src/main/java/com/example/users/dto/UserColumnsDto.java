@@ -0,0 +1,42 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Lista de usuários em colunas (Accept: application/vnd.users.columnar+json): os nomes dos campos aparecem
+// uma vez só e jobTitle/systemRole, com poucos valores distintos, vão como dicionário + códigos
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserColumnsDto {
+
+    private int count;
+
+    private long[] id;
+
+    private List<String> name;
+
+    private List<String> email;
+
+    private DictionaryColumn jobTitle;
+
+    private DictionaryColumn systemRole;
+
+    private boolean[] active;
+
+    private long[] version;
+
+    // valor da linha i = values[codes[i]] (código -1 = null)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DictionaryColumn {
+
+        private List<String> values;
+
+        private int[] codes;
+    }
+}
@@ -33,4 +33,7 @@ public class UserDto {
     private SystemRole systemRole;
 
     private Boolean active;
+
+    // somente leitura: ignorado em criações e atualizações
+    private Long version;
 }
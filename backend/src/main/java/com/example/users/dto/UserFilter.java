@@ -0,0 +1,23 @@
+package com.example.users.dto;
+
+import com.example.users.model.SystemRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Filtros opcionais e combináveis usados na listagem, paginação e streaming
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFilter {
+
+    private String name;
+
+    private String email;
+
+    private String jobTitle;
+
+    private SystemRole systemRole;
+
+    private Boolean active;
+}
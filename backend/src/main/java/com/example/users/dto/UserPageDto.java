@@ -0,0 +1,18 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDto {
+
+    private List<UserDto> items;
+
+    // cursor opaco para a próxima página (null quando não há mais registros)
+    private String nextCursor;
+}
@@ -0,0 +1,45 @@
+package com.example.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Série de /stats/trends: um ponto por bucket (e grupo, com groupBy) que teve algum evento; buckets sem
+// eventos são omitidos. from/to já alinhados aos buckets, em UTC (to exclusivo).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserTrendsDto {
+
+    private String granularity;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private String groupBy;
+
+    private List<Point> points;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+
+        private LocalDateTime bucket;
+
+        // valor de groupBy (systemRole, jobTitle ou active); null sem groupBy
+        private String group;
+
+        private long signups;
+
+        private long activations;
+
+        private long deactivations;
+
+        private long deletions;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.users.event;
+
+import com.example.users.dto.UserDto;
+
+// Publicado pelo UserService dentro da transação de escrita.
+// before == null em criações; after == null em exclusões.
+public record UserChangedEvent(UserDto before, UserDto after) {
+
+    public static UserChangedEvent created(UserDto after) {
+        return new UserChangedEvent(null, after);
+    }
+
+    public static UserChangedEvent updated(UserDto before, UserDto after) {
+        return new UserChangedEvent(before, after);
+    }
+
+    public static UserChangedEvent deleted(UserDto before) {
+        return new UserChangedEvent(before, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.users.event;
+
+import java.util.List;
+
+// Várias alterações de uma mesma transação (importação, operações em lote):
+// os listeners ajustam estatísticas, cache e índices uma vez por lote.
+public record UsersBulkChangedEvent(List<UserChangedEvent> changes) {
+}
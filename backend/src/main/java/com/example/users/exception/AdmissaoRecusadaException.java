@@ -0,0 +1,21 @@
+package com.example.users.exception;
+
+import lombok.Getter;
+
+// Requisição recusada antes de chegar ao controller: limite de taxa do cliente (429)
+// ou fila do bulkhead cheia além do tempo de espera (503)
+@Getter
+public class AdmissaoRecusadaException extends RuntimeException {
+
+    private final boolean rateLimited;
+
+    private final long retryAfterSeconds;
+
+    public AdmissaoRecusadaException(boolean rateLimited, long retryAfterSeconds) {
+        super(rateLimited
+                ? "Limite de requisições excedido. Tente novamente em " + retryAfterSeconds + "s."
+                : "Servidor ocupado. Tente novamente em " + retryAfterSeconds + "s.");
+        this.rateLimited = rateLimited;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.users.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +23,9 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private MeterRegistry registry;
+
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleUserNotFound(UserNotFoundException ex, HttpServletRequest req) {
         return build(HttpStatus.NOT_FOUND, "Recurso não encontrado", ex.getMessage(), req.getRequestURI(), null);
@@ -46,6 +56,43 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.CONFLICT, "Conflito", "Violação de integridade (ex.: e-mail já cadastrado).", req.getRequestURI(), null);
     }
 
+    @ExceptionHandler(VersaoDesatualizadaException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailed(VersaoDesatualizadaException ex, HttpServletRequest req) {
+        return build(HttpStatus.PRECONDITION_FAILED, "Versão desatualizada", ex.getMessage(), req.getRequestURI(), null);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLock(OptimisticLockingFailureException ex, HttpServletRequest req) {
+        return build(HttpStatus.CONFLICT, "Conflito", "O usuário foi alterado por outra requisição. Recarregue e tente novamente.", req.getRequestURI(), null);
+    }
+
+    @ExceptionHandler(SincronizacaoExpiradaException.class)
+    public ResponseEntity<Map<String, Object>> handleGone(SincronizacaoExpiradaException ex, HttpServletRequest req) {
+        return build(HttpStatus.GONE, "Sincronização expirada", ex.getMessage(), req.getRequestURI(), null);
+    }
+
+    // pool sem conexão livre dentro do tempo de espera (app.users.db.max-wait / connectionTimeout do Hikari)
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Map<String, Object>> handleUnavailable(RuntimeException ex, HttpServletRequest req) {
+        var response = build(HttpStatus.SERVICE_UNAVAILABLE, "Serviço indisponível", "Banco de dados ocupado. Tente novamente.", req.getRequestURI(), null);
+        return ResponseEntity.status(response.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(response.getBody());
+    }
+
+    @ExceptionHandler(AdmissaoRecusadaException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmission(AdmissaoRecusadaException ex, HttpServletRequest req) {
+        var response = ex.isRateLimited()
+                ? build(HttpStatus.TOO_MANY_REQUESTS, "Muitas requisições", ex.getMessage(), req.getRequestURI(), null)
+                : build(HttpStatus.SERVICE_UNAVAILABLE, "Serviço indisponível", ex.getMessage(), req.getRequestURI(), null);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    // cliente desconectou no meio de uma resposta assíncrona (SSE, streaming): não há a quem responder
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientGone() {
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex, HttpServletRequest req) {
         return build(HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno", "Ocorreu um erro inesperado.", req.getRequestURI(), null);
@@ -58,6 +105,9 @@ public class GlobalExceptionHandler {
             String path,
             Map<String, String> fieldErrors
     ) {
+        // users.errors{category, status}: a categoria é o título do erro devolvido (ex.: "Versão desatualizada")
+        registry.counter("users.errors", "category", error, "status", String.valueOf(status.value())).increment();
+
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("status", status.value());
@@ -0,0 +1,7 @@
+package com.example.users.exception;
+
+public class SincronizacaoExpiradaException extends RuntimeException {
+    public SincronizacaoExpiradaException() {
+        super("Token de sincronização expirado. Recarregue a lista completa (sem since) e continue a partir do novo token.");
+    }
+}
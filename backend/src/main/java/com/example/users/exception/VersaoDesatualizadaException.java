@@ -0,0 +1,7 @@
+package com.example.users.exception;
+
+public class VersaoDesatualizadaException extends RuntimeException {
+    public VersaoDesatualizadaException(Long id) {
+        super("O usuário com ID " + id + " foi alterado por outra requisição. Recarregue e tente novamente.");
+    }
+}
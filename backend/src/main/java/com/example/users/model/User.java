@@ -37,6 +37,12 @@ public class User {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // gravado pelo trigger do banco em todo INSERT/UPDATE (V8__users_changes.sql)
+    @Column(nullable = false, insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
+    // null até o primeiro persist (o Spring Data usa isso para distinguir entidade nova)
+    @Version
     @Column(nullable = false)
-    private LocalDateTime updatedAt = LocalDateTime.now();
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package com.example.users.repository;
+
+import com.example.users.model.SystemRole;
+
+// Mesmos critérios do UserRepository.search, já normalizados (LIKE em minúsculas, null = sem filtro)
+public record UserCriteria(
+        String nameLike,
+        String emailLike,
+        String jobTitleLower,
+        SystemRole systemRole,
+        Boolean active
+) {
+
+    public boolean isEmpty() {
+        return nameLike == null && emailLike == null && jobTitleLower == null
+                && systemRole == null && active == null;
+    }
+
+    // algum filtro além de active (que sozinho seleciona a tabela inteira, ou nenhuma linha a alterar)
+    public boolean hasAttributeFilter() {
+        return nameLike != null || emailLike != null || jobTitleLower != null || systemRole != null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.users.repository;
+
+import com.example.users.dto.UserDto;
+
+// Linha antes e depois de um UPDATE ... RETURNING
+public record UserPatchResult(UserDto before, UserDto after) {
+}
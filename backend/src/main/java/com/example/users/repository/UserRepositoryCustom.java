@@ -0,0 +1,59 @@
+package com.example.users.repository;
+
+import com.example.users.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Consultas em SQL nativo (JdbcTemplate) que não cabem em JPQL; implementadas em UserRepositoryCustomImpl
+public interface UserRepositoryCustom {
+
+    // UPDATE de uma instrução só, apenas nas colunas informadas; vazio se o id não existe
+    // ou se expectedVersion (não nulo) não confere
+    Optional<UserPatchResult> patchColumns(Long id, Map<String, Object> columns, Long expectedVersion);
+
+    // Busca com apenas os predicados informados em criteria (null = sem filtro)
+    List<UserDto> search(UserCriteria criteria);
+
+    // Paginação por cursor (keyset em id): evita OFFSET e mantém custo constante por página
+    List<UserDto> searchPage(UserCriteria criteria, Long afterId, int limit);
+
+    // Streaming ordenado por id com fetch size; precisa de transação e deve ser fechado
+    Stream<UserDto> streamSearch(UserCriteria criteria);
+
+    // UPDATE ... SET active = false para até limit ativos que atendem aos critérios; devolve as linhas alteradas
+    List<UserDto> deactivateMatching(UserCriteria criteria, int limit);
+
+    // DELETE ... WHERE id = ANY(?); devolve as linhas removidas (ids inexistentes são ignorados)
+    List<UserDto> deleteByIds(Collection<Long> ids);
+
+    // SELECT ... WHERE id = ANY(?) em ordem de id (ids inexistentes são ignorados)
+    List<UserDto> findByIds(Collection<Long> ids);
+
+    // Idem com FOR UPDATE: trava as linhas até o fim da transação (sempre em ordem de id, sem deadlock entre lotes)
+    List<UserDto> lockByIds(Collection<Long> ids);
+
+    // UPDATE das colunas editáveis de cada usuário em um único lote JDBC (mesma instrução, um conjunto de
+    // parâmetros por usuário), condicionado a version = getVersion(); devolve as linhas afetadas por usuário
+    int[] updateAll(List<UserDto> users);
+
+    // Relógio do banco em UTC: o mesmo que o trigger usa para gravar updated_at (V8__users_changes.sql)
+    LocalDateTime currentTimestamp();
+
+    // Relógio do banco em UTC, recuado ao início da transação de escrita mais antiga ainda aberta: tudo que não
+    // commitou até aqui terá updated_at maior ou igual. Só faz sentido no primário (fora de transação somente leitura)
+    LocalDateTime writeHorizon();
+
+    // Criados/alterados com updated_at >= since, em ordem de updated_at; since null devolve todos
+    List<UserDto> changedSince(LocalDateTime since);
+
+    // Ids removidos com deleted_at >= since (users_tombstones)
+    List<Long> deletedSince(LocalDateTime since);
+
+    // Expurga tombstones anteriores a before; devolve quantos foram apagados
+    int purgeTombstones(LocalDateTime before);
+}
@@ -0,0 +1,254 @@
+package com.example.users.repository;
+
+import com.example.users.dto.UserDto;
+import com.example.users.model.SystemRole;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String SELECT_USER = "SELECT id, name, email, job_title, system_role, active, version FROM users";
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String RETURNING_USER = "RETURNING id, name, email, job_title, system_role, active, version";
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    // o driver do Postgres só respeita o fetch size dentro de transação (autocommit off)
+    private NamedParameterJdbcTemplate streamingJdbc;
+
+    @PostConstruct
+    void init() {
+        var template = new JdbcTemplate(jdbc.getDataSource());
+        template.setFetchSize(STREAM_FETCH_SIZE);
+        streamingJdbc = new NamedParameterJdbcTemplate(template);
+    }
+
+    @Override
+    public Optional<UserPatchResult> patchColumns(Long id, Map<String, Object> columns, Long expectedVersion) {
+        var set = new StringBuilder();
+        var args = new ArrayList<Object>();
+        columns.forEach((column, value) -> {
+            set.append(column).append(" = ?, ");
+            args.add(value);
+        });
+        args.add(id);
+
+        // o subselect FOR UPDATE trava a linha e devolve os valores anteriores no mesmo RETURNING
+        var sql = new StringBuilder()
+                .append("UPDATE users u SET ").append(set)
+                .append("version = u.version + 1 ")
+                .append("FROM (SELECT id, name, email, job_title, system_role, active, version ")
+                .append("FROM users WHERE id = ? FOR UPDATE) old ")
+                .append("WHERE u.id = old.id ");
+        if (expectedVersion != null) {
+            sql.append("AND u.version = ? ");
+            args.add(expectedVersion);
+        }
+        sql.append("RETURNING old.name AS old_name, old.email AS old_email, old.job_title AS old_job_title, ")
+                .append("old.system_role AS old_system_role, old.active AS old_active, old.version AS old_version, ")
+                .append("u.id, u.name, u.email, u.job_title, u.system_role, u.active, u.version");
+
+        var rows = jdbc.query(sql.toString(), (rs, i) -> new UserPatchResult(
+                new UserDto(
+                        rs.getLong("id"),
+                        rs.getString("old_name"),
+                        rs.getString("old_email"),
+                        rs.getString("old_job_title"),
+                        SystemRole.valueOf(rs.getString("old_system_role")),
+                        rs.getBoolean("old_active"),
+                        rs.getLong("old_version")
+                ),
+                mapUser(rs)
+        ), args.toArray());
+
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<UserDto> search(UserCriteria criteria) {
+        var params = new MapSqlParameterSource();
+        var sql = SELECT_USER + where(criteria, params);
+        return namedJdbc.query(sql, params, (rs, i) -> mapUser(rs));
+    }
+
+    @Override
+    public List<UserDto> searchPage(UserCriteria criteria, Long afterId, int limit) {
+        var params = new MapSqlParameterSource();
+        var where = where(criteria, params);
+        if (afterId != null) {
+            where.append(where.isEmpty() ? " WHERE " : " AND ").append("id > :afterId");
+            params.addValue("afterId", afterId);
+        }
+        params.addValue("limit", limit);
+        return namedJdbc.query(SELECT_USER + where + " ORDER BY id LIMIT :limit", params, (rs, i) -> mapUser(rs));
+    }
+
+    @Override
+    public Stream<UserDto> streamSearch(UserCriteria criteria) {
+        var params = new MapSqlParameterSource();
+        var sql = SELECT_USER + where(criteria, params) + " ORDER BY id";
+
+        return streamingJdbc.queryForStream(sql, params, (rs, i) -> mapUser(rs));
+    }
+
+    @Override
+    public List<UserDto> deactivateMatching(UserCriteria criteria, int limit) {
+        // quem já está inativo não tem o que desativar
+        if (Boolean.FALSE.equals(criteria.active())) return List.of();
+
+        var params = new MapSqlParameterSource();
+        var where = where(new UserCriteria(criteria.nameLike(), criteria.emailLike(), criteria.jobTitleLower(),
+                criteria.systemRole(), true), params);
+        // LIMIT na subconsulta: o RETURNING nunca traz mais que limit linhas para a memória
+        params.addValue("limit", limit);
+        var sql = "UPDATE users SET active = false, version = version + 1"
+                + " WHERE id IN (SELECT id FROM users" + where + " LIMIT :limit FOR UPDATE) " + RETURNING_USER;
+        return namedJdbc.query(sql, params, (rs, i) -> mapUser(rs));
+    }
+
+    // só os predicados informados entram no SQL: sem os "(:x IS NULL OR ...)", o planejador enxerga
+    // cada filtro e escolhe o índice certo para a combinação (ver V7__search_composite_indexes.sql)
+    static StringBuilder where(UserCriteria criteria, MapSqlParameterSource params) {
+        var predicates = new ArrayList<String>(5);
+        if (criteria.nameLike() != null) {
+            predicates.add("LOWER(name) LIKE :nameLike");
+            params.addValue("nameLike", criteria.nameLike());
+        }
+        if (criteria.emailLike() != null) {
+            predicates.add("LOWER(email) LIKE :emailLike");
+            params.addValue("emailLike", criteria.emailLike());
+        }
+        if (criteria.jobTitleLower() != null) {
+            predicates.add("LOWER(job_title) = :jobTitleLower");
+            params.addValue("jobTitleLower", criteria.jobTitleLower());
+        }
+        if (criteria.systemRole() != null) {
+            predicates.add("system_role = :systemRole");
+            params.addValue("systemRole", criteria.systemRole().name());
+        }
+        if (criteria.active() != null) {
+            predicates.add("active = :active");
+            params.addValue("active", criteria.active());
+        }
+        return new StringBuilder(predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates));
+    }
+
+    @Override
+    public List<UserDto> deleteByIds(Collection<Long> ids) {
+        var idArray = ids.toArray(Long[]::new);
+        return jdbc.query(con -> {
+            var ps = con.prepareStatement("DELETE FROM users WHERE id = ANY(?) " + RETURNING_USER);
+            ps.setArray(1, con.createArrayOf("bigint", idArray));
+            return ps;
+        }, (rs, i) -> mapUser(rs));
+    }
+
+    @Override
+    public List<UserDto> findByIds(Collection<Long> ids) {
+        return selectByIds(ids, "");
+    }
+
+    @Override
+    public List<UserDto> lockByIds(Collection<Long> ids) {
+        return selectByIds(ids, " FOR UPDATE");
+    }
+
+    private List<UserDto> selectByIds(Collection<Long> ids, String suffix) {
+        var idArray = ids.toArray(Long[]::new);
+        return jdbc.query(con -> {
+            var ps = con.prepareStatement(SELECT_USER + " WHERE id = ANY(?) ORDER BY id" + suffix);
+            ps.setArray(1, con.createArrayOf("bigint", idArray));
+            return ps;
+        }, (rs, i) -> mapUser(rs));
+    }
+
+    @Override
+    public int[] updateAll(List<UserDto> users) {
+        return jdbc.batchUpdate("""
+                UPDATE users SET name = ?, email = ?, job_title = ?, system_role = ?, active = ?, version = version + 1
+                WHERE id = ? AND version = ?
+                """, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                var u = users.get(i);
+                ps.setString(1, u.getName());
+                ps.setString(2, u.getEmail());
+                ps.setString(3, u.getJobTitle());
+                ps.setString(4, u.getSystemRole().name());
+                ps.setBoolean(5, u.getActive());
+                ps.setLong(6, u.getId());
+                ps.setLong(7, u.getVersion());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+    }
+
+    @Override
+    public LocalDateTime currentTimestamp() {
+        return jdbc.queryForObject("SELECT clock_timestamp() AT TIME ZONE 'UTC'", LocalDateTime.class);
+    }
+
+    // backend_xid preenchido: a transação já escreveu (só então recebe xid); o updated_at das suas linhas é o
+    // clock_timestamp() de cada escrita, nunca anterior ao xact_start
+    @Override
+    public LocalDateTime writeHorizon() {
+        return jdbc.queryForObject("""
+                SELECT LEAST(clock_timestamp(), (SELECT min(xact_start) FROM pg_stat_activity
+                                                 WHERE backend_xid IS NOT NULL AND datname = current_database()))
+                       AT TIME ZONE 'UTC'
+                """, LocalDateTime.class);
+    }
+
+    @Override
+    public List<UserDto> changedSince(LocalDateTime since) {
+        if (since == null) return jdbc.query(SELECT_USER + " ORDER BY updated_at, id", (rs, i) -> mapUser(rs));
+        return jdbc.query(SELECT_USER + " WHERE updated_at >= ? ORDER BY updated_at, id", (rs, i) -> mapUser(rs), since);
+    }
+
+    @Override
+    public List<Long> deletedSince(LocalDateTime since) {
+        return jdbc.queryForList("SELECT id FROM users_tombstones WHERE deleted_at >= ? ORDER BY deleted_at, id", Long.class, since);
+    }
+
+    @Override
+    public int purgeTombstones(LocalDateTime before) {
+        return jdbc.update("DELETE FROM users_tombstones WHERE deleted_at < ?", before);
+    }
+
+    static UserDto mapUser(ResultSet rs) throws SQLException {
+        return new UserDto(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("job_title"),
+                SystemRole.valueOf(rs.getString("system_role")),
+                rs.getBoolean("active"),
+                rs.getLong("version")
+        );
+    }
+}
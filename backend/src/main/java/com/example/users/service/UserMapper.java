@@ -0,0 +1,75 @@
+package com.example.users.service;
+
+import com.example.users.dto.UserColumnsDto;
+import com.example.users.dto.UserDto;
+import com.example.users.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+// Conversão entidade <-> DTO usada pelo UserService (e medida no módulo benchmarks)
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserDto toDto(User u) {
+        return new UserDto(
+                u.getId(),
+                u.getName(),
+                u.getEmail(),
+                u.getJobTitle(),
+                u.getSystemRole(),
+                u.getActive(),
+                u.getVersion()
+        );
+    }
+
+    public static User toEntity(UserDto d) {
+        var u = new User();
+        u.setId(d.getId());
+        u.setName(d.getName());
+        u.setEmail(d.getEmail());
+        u.setJobTitle(d.getJobTitle());
+        u.setSystemRole(d.getSystemRole());
+        u.setActive(d.getActive() == null ? true : d.getActive());
+        return u;
+    }
+
+    public static UserColumnsDto toColumns(List<UserDto> users) {
+        int n = users.size();
+        var ids = new long[n];
+        var names = new ArrayList<String>(n);
+        var emails = new ArrayList<String>(n);
+        var active = new boolean[n];
+        var versions = new long[n];
+        for (int i = 0; i < n; i++) {
+            var u = users.get(i);
+            ids[i] = u.getId();
+            names.add(u.getName());
+            emails.add(u.getEmail());
+            active[i] = Boolean.TRUE.equals(u.getActive());
+            versions[i] = u.getVersion() == null ? 0 : u.getVersion();
+        }
+        return new UserColumnsDto(n, ids, names, emails,
+                dictionary(users, UserDto::getJobTitle),
+                dictionary(users, u -> u.getSystemRole() == null ? null : u.getSystemRole().name()),
+                active, versions);
+    }
+
+    private static UserColumnsDto.DictionaryColumn dictionary(List<UserDto> users, Function<UserDto, String> column) {
+        var values = new ArrayList<String>();
+        var index = new HashMap<String, Integer>();
+        var codes = new int[users.size()];
+        for (int i = 0; i < codes.length; i++) {
+            String value = column.apply(users.get(i));
+            codes[i] = value == null ? -1 : index.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+        return new UserColumnsDto.DictionaryColumn(values, codes);
+    }
+}
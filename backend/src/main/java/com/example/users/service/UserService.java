@@ -1,23 +1,49 @@
 package com.example.users.service;
 
+import com.example.users.config.CacheConfig;
 import com.example.users.dto.UserDto;
+import com.example.users.dto.UserFilter;
+import com.example.users.dto.UserPageDto;
+import com.example.users.event.UserChangedEvent;
+import com.example.users.event.UsersBulkChangedEvent;
 import com.example.users.exception.UserNotFoundException;
+import com.example.users.exception.VersaoDesatualizadaException;
 import com.example.users.model.SystemRole;
 import com.example.users.model.User;
+import com.example.users.repository.UserCriteria;
 import com.example.users.repository.UserRepository;
+import com.example.users.service.etag.UserChangeStamp;
+import com.example.users.service.patch.UserPatchSchema;
+import com.example.users.service.stats.UserStatsCounter;
+import com.example.users.service.stats.UserStatsReconciler;
+import com.example.users.service.validacoes.ValidadorTimers;
 import com.example.users.service.validacoes.create.ValidadorCriacaoUsuario;
 import com.example.users.service.validacoes.update.ValidadorAtualizacaoUsuario;
 import com.example.users.service.validacoes.patch.ValidadorPatchUsuario;
+import com.example.users.web.ReadYourWrites;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
 
 @Service
 public class UserService {
 
+    // menor termo com trigramas (pg_trgm)
+    private static final int MIN_CONTAINS_LENGTH = 3;
+
     @Autowired
     private UserRepository repo;
 
@@ -31,10 +57,33 @@ public class UserService {
     @Autowired
     private List<ValidadorPatchUsuario> validadoresPatch;
 
+    @Autowired
+    private ValidadorTimers validadorTimers;
+
+    @Autowired
+    private UserStatsCounter statsCounter;
+
+    @Autowired
+    private UserStatsReconciler statsReconciler;
+
+    @Autowired
+    private UserChangeStamp changeStamp;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Value("${app.users.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.users.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.users.bulk.max-ids:10000}")
+    private int maxBulkIds;
+
     // =========================
     // LISTAGEM COM FILTROS COMBINADOS
     // =========================
-    // @Transactional(readOnly = true)
 
     private String likeLowerOrNull(String s) {
         if (s == null) return null;
@@ -43,89 +92,206 @@ public class UserService {
         return "%" + t.toLowerCase() + "%";
     }
 
+    private static boolean isShort(String s) {
+        return s != null && !s.isBlank() && s.trim().length() < MIN_CONTAINS_LENGTH;
+    }
+
     private String lowerOrNull(String s) {
         if (s == null) return null;
         String t = s.trim();
         return t.isEmpty() ? null : t.toLowerCase();
     }
 
-    public List<UserDto> search(String name, String email, String jobTitle, SystemRole systemRole, Boolean active) {
-        String nameLike = likeLowerOrNull(name);
-        String emailLike = likeLowerOrNull(email);
-        String jobTitleLower = lowerOrNull(jobTitle);
+    // o SQL leva só os filtros informados (ver UserRepositoryCustomImpl).
+    // Carimbo da tabela (ETag) e linhas na mesma transação, no primário: na réplica a sequência do carimbo aparece
+    // adiantada e as linhas podem estar atrasadas. O carimbo é lido antes das linhas, então no pior caso o ETag é mais
+    // velho que o corpo (o cliente rebusca), nunca o contrário. notModified(carimbo) = true: não busca, devolve null
+    @Transactional(readOnly = true)
+    public List<UserDto> searchIfModified(UserFilter filter, LongPredicate notModified) {
+        return ReadYourWrites.onPrimary(() -> {
+            if (notModified.test(changeStamp.current())) return null;
+            return repo.search(toCriteria(filter));
+        });
+    }
+
+    // =========================
+    // PAGINAÇÃO POR CURSOR (keyset em id)
+    // =========================
+    @Transactional(readOnly = true)
+    public UserPageDto searchPage(UserFilter filter, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("size deve estar entre 1 e " + maxPageSize + ".");
+        }
+
+        // busca um registro a mais só para saber se existe próxima página
+        var users = repo.searchPage(toCriteria(filter), decodeCursor(cursor), pageSize + 1);
 
-        return repo.search(nameLike, emailLike, jobTitleLower, systemRole, active)
-                .stream().map(this::toDto).toList();
+        boolean hasMore = users.size() > pageSize;
+        var items = users.stream().limit(pageSize).toList();
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null;
+
+        return new UserPageDto(items, nextCursor);
+    }
+
+    // =========================
+    // STREAMING (memória constante, independente do tamanho do resultado)
+    // =========================
+    @Transactional(readOnly = true)
+    public void streamSearch(UserFilter filter, Consumer<UserDto> consumer) {
+        try (var users = repo.streamSearch(toCriteria(filter))) {
+            // linhas lidas direto em DTO: nada fica no contexto de persistência, então o heap não cresce com o resultado
+            users.forEach(consumer);
+        }
     }
 
 
 
+    // sync = true: a carga roda dentro do compute do Caffeine, então um put feito após o commit
+    // de uma escrita concorrente não é sobrescrito por uma leitura antiga.
+    // No primário: o valor fica no cache pelo TTL inteiro (da réplica, um usuário removido ou antigo lido dentro
+    // do atraso seria servido por minutos)
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id", sync = true)
     @Transactional(readOnly = true)
     public UserDto findById(Long id) {
-        var user = repo.findById(id).orElseThrow(() -> new UserNotFoundException(id));
-        return toDto(user);
+        var user = ReadYourWrites.onPrimary(() -> repo.findById(id).orElseThrow(() -> new UserNotFoundException(id)));
+        return UserMapper.toDto(user);
     }
 
     @Transactional
     public UserDto create(UserDto dto) {
-        validadoresCriacao.forEach(v -> v.validar(dto));
+        validadoresCriacao.forEach(v -> validadorTimers.medir("criacao", v, () -> v.validar(dto)));
 
-        var user = toEntity(dto);
+        var user = UserMapper.toEntity(dto);
         user.setId(null);
         var saved = repo.save(user);
 
-        return toDto(saved);
+        var created = UserMapper.toDto(saved);
+        events.publishEvent(UserChangedEvent.created(created));
+        return created;
     }
 
+    // expectedVersion: versão informada via If-Match (null = sem pré-condição)
     @Transactional
-    public UserDto update(Long id, UserDto dto) {
+    public UserDto update(Long id, UserDto dto, Long expectedVersion) {
         var existing = repo.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+        checkVersion(existing, expectedVersion);
 
-        validadoresAtualizacao.forEach(v -> v.validar(id, dto, existing));
+        validadoresAtualizacao.forEach(v -> validadorTimers.medir("atualizacao", v, () -> v.validar(id, dto, existing)));
 
+        var before = UserMapper.toDto(existing);
         existing.setName(dto.getName());
         existing.setEmail(dto.getEmail());
         existing.setJobTitle(dto.getJobTitle());
         existing.setSystemRole(dto.getSystemRole());
         existing.setActive(dto.getActive());
 
-        return toDto(repo.save(existing));
+        // flush para o @Version já refletir a nova versão no DTO devolvido (e no ETag)
+        var updated = UserMapper.toDto(saveAndFlush(existing, expectedVersion));
+        events.publishEvent(UserChangedEvent.updated(before, updated));
+        return updated;
     }
 
     @Transactional
     public void delete(Long id) {
         var existing = repo.findById(id).orElseThrow(() -> new UserNotFoundException(id));
         repo.delete(existing);
+        events.publishEvent(UserChangedEvent.deleted(UserMapper.toDto(existing)));
     }
 
+    // uma instrução só: UPDATE apenas das colunas enviadas + updated_at/version, com RETURNING
+    // (sem findById antes e sem regravar a linha inteira)
     @Transactional
-    public UserDto patch(Long id, Map<String, Object> updates) {
-        var existing = repo.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+    public UserDto patch(Long id, Map<String, Object> updates, Long expectedVersion) {
+        validadoresPatch.forEach(v -> validadorTimers.medir("patch", v, () -> v.validar(id, updates)));
+
+        var columns = UserPatchSchema.toColumns(updates);
+        if (columns.isEmpty()) {
+            var existing = repo.findById(id).orElseThrow(() -> new UserNotFoundException(id));
+            checkVersion(existing, expectedVersion);
+            return UserMapper.toDto(existing);
+        }
 
-        validadoresPatch.forEach(v -> v.validar(id, updates, existing));
+        var result = repo.patchColumns(id, columns, expectedVersion).orElseThrow(() -> {
+            // só no caminho de falha: distingue id inexistente de versão desatualizada
+            if (expectedVersion != null && repo.existsById(id)) return new VersaoDesatualizadaException(id);
+            return new UserNotFoundException(id);
+        });
+
+        events.publishEvent(UserChangedEvent.updated(result.before(), result.after()));
+        return result.after();
+    }
 
-        // aplica updates (somente campos presentes)
-        applyPatch(existing, updates);
+    // =========================
+    // OPERAÇÕES EM LOTE (uma instrução, uma transação, um evento)
+    // =========================
+    @Transactional
+    public int deactivateMatching(UserFilter filter) {
+        var criteria = toCriteria(filter);
+        // sem critério (ou só active = true) o UPDATE desativaria a tabela inteira
+        if (!criteria.hasAttributeFilter()) {
+            throw new IllegalArgumentException("Informe ao menos um filtro (name, email, jobTitle ou systemRole) para desativar em lote.");
+        }
 
-        return toDto(repo.save(existing));
+        // mesmo limite do DELETE por ids: uma linha a mais só para saber que passou (e desfazer tudo)
+        var updated = repo.deactivateMatching(criteria, maxBulkIds + 1);
+        if (updated.size() > maxBulkIds) {
+            throw new IllegalArgumentException("O filtro seleciona mais de " + maxBulkIds
+                    + " usuários ativos; refine os filtros para desativar em lote.");
+        }
+        if (!updated.isEmpty()) {
+            // o UPDATE só toca linhas ativas: o estado anterior é a própria linha com active = true
+            var changes = updated.stream()
+                    .map(after -> UserChangedEvent.updated(
+                            new UserDto(after.getId(), after.getName(), after.getEmail(), after.getJobTitle(),
+                                    after.getSystemRole(), true, after.getVersion() - 1),
+                            after))
+                    .toList();
+            events.publishEvent(new UsersBulkChangedEvent(changes));
+        }
+        return updated.size();
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
+    public int deleteByIds(List<Long> ids) {
+        var distinct = new LinkedHashSet<Long>(ids);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um id.");
+        }
+        if (distinct.size() > maxBulkIds) {
+            throw new IllegalArgumentException("No máximo " + maxBulkIds + " ids por requisição.");
+        }
+
+        var deleted = repo.deleteByIds(distinct);
+        if (!deleted.isEmpty()) {
+            events.publishEvent(new UsersBulkChangedEvent(deleted.stream().map(UserChangedEvent::deleted).toList()));
+        }
+        return deleted.size();
+    }
+
+    // muda sempre que os contadores mudam (ETag de /stats); não consulta o banco
+    public String getStatsVersion() {
+        if (!statsCounter.isLoaded()) statsReconciler.reconcile();
+        return statsCounter.version();
+    }
+
+    // contadores em memória, seguindo o outbox (ver UserStatsCounter); sem GROUP BY por chamada
+    // eventId: último evento do outbox já incluído nos contadores; o cliente soma só os eventos SSE posteriores a ele
     public Map<String, Object> getStats() {
-        var stats = new java.util.HashMap<String, Object>();
+        if (!statsCounter.isLoaded()) statsReconciler.reconcile();
 
-        var jobTitleStats = new java.util.HashMap<String, Long>();
-        repo.countByJobTitle().forEach(r -> jobTitleStats.put((String) r[0], (Long) r[1]));
+        var snapshot = statsCounter.snapshot();
+        var counts = snapshot.counts();
+        var stats = new HashMap<String, Object>();
+
+        var jobTitleStats = counts.get("byJobTitle");
         stats.put("byRole", jobTitleStats);       // compatibilidade
         stats.put("byJobTitle", jobTitleStats);   // correto
 
-        var systemRoleStats = new java.util.HashMap<String, Long>();
-        repo.countBySystemRole().forEach(r -> systemRoleStats.put(String.valueOf(r[0]), (Long) r[1]));
-        stats.put("bySystemRole", systemRoleStats);
-
-        var activeStats = new java.util.HashMap<String, Long>();
-        repo.countByActive().forEach(a -> activeStats.put((Boolean) a[0] ? "active" : "inactive", (Long) a[1]));
-        stats.put("byActive", activeStats);
+        stats.put("bySystemRole", counts.get("bySystemRole"));
+        stats.put("byActive", counts.get("byActive"));
+        stats.put("eventId", snapshot.eventId());
 
         return stats;
     }
@@ -147,51 +313,52 @@ public class UserService {
     //     return t.isEmpty() ? null : t;
     // }
 
-    private UserDto toDto(User u) {
-        return new UserDto(
-                u.getId(),
-                u.getName(),
-                u.getEmail(),
-                u.getJobTitle(),
-                u.getSystemRole(),
-                u.getActive()
+    private UserCriteria toCriteria(UserFilter filter) {
+        // com menos de 3 caracteres não há trigramas (pg_trgm, V5): o "contém" varreria a tabela inteira,
+        // então o termo curto só vale junto de um filtro atendido por índice (jobTitle ou systemRole, V7)
+        if ((isShort(filter.getName()) || isShort(filter.getEmail()))
+                && lowerOrNull(filter.getJobTitle()) == null && filter.getSystemRole() == null) {
+            throw new IllegalArgumentException("name e email precisam de ao menos " + MIN_CONTAINS_LENGTH
+                    + " caracteres, ou informe também jobTitle ou systemRole.");
+        }
+        return new UserCriteria(
+                likeLowerOrNull(filter.getName()),
+                likeLowerOrNull(filter.getEmail()),
+                lowerOrNull(filter.getJobTitle()),
+                filter.getSystemRole(),
+                filter.getActive()
         );
     }
 
-    private User toEntity(UserDto d) {
-        var u = new User();
-        u.setId(d.getId());
-        u.setName(d.getName());
-        u.setEmail(d.getEmail());
-        u.setJobTitle(d.getJobTitle());
-        u.setSystemRole(d.getSystemRole());
-        u.setActive(d.getActive() == null ? true : d.getActive());
-        return u;
+    private void checkVersion(User existing, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new VersaoDesatualizadaException(existing.getId());
+        }
     }
 
-    private void applyPatch(User existing, Map<String, Object> updates) {
-        if (updates.containsKey("name") && updates.get("name") != null)
-            existing.setName(updates.get("name").toString());
-
-        if (updates.containsKey("email") && updates.get("email") != null)
-            existing.setEmail(updates.get("email").toString());
-
-        if (updates.containsKey("jobTitle") && updates.get("jobTitle") != null)
-            existing.setJobTitle(updates.get("jobTitle").toString());
-
-        // compatibilidade: role -> jobTitle
-        if (updates.containsKey("role") && updates.get("role") != null)
-            existing.setJobTitle(updates.get("role").toString());
-
-        if (updates.containsKey("systemRole") && updates.get("systemRole") != null) {
-            var s = updates.get("systemRole").toString().trim().toUpperCase();
-            existing.setSystemRole(SystemRole.valueOf(s));
+    // o UPDATE ... WHERE version = ? do @Version pega a escrita concorrente entre o findById e o flush,
+    // sem lock de linha; com If-Match isso também é uma pré-condição que falhou (412)
+    private User saveAndFlush(User existing, Long expectedVersion) {
+        try {
+            return repo.saveAndFlush(existing);
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion != null) throw new VersaoDesatualizadaException(existing.getId());
+            throw e;
         }
+    }
+
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
 
-        if (updates.containsKey("active") && updates.get("active") != null) {
-            var val = updates.get("active");
-            if (val instanceof Boolean b) existing.setActive(b);
-            else existing.setActive(Boolean.parseBoolean(val.toString()));
+    private Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            return Long.valueOf(decoded);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("cursor inválido.");
         }
     }
 }
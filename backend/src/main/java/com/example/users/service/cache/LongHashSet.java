@@ -0,0 +1,90 @@
+package com.example.users.service.cache;
+
+// Conjunto de long em um único long[] (endereçamento aberto, sondagem linear): 8 bytes por posição, ocupação até 1/2,
+// contra ~60-80 bytes por Long em um Set<Long>. 0 marca posição vazia, então é guardado como 1 (para quem usa
+// hashes, só uma colisão a mais). Remoção desloca o grupo para trás: sem lápides, a busca não degrada com o tempo.
+final class LongHashSet {
+
+    private long[] slots;
+
+    private int size;
+
+    LongHashSet(int expected) {
+        slots = new long[capacityFor(expected)];
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized boolean contains(long value) {
+        long key = key(value);
+        int mask = slots.length - 1;
+        for (int i = index(key, mask); slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == key) return true;
+        }
+        return false;
+    }
+
+    synchronized void add(long value) {
+        if ((size + 1) * 2L > slots.length) resize(slots.length * 2);
+        if (insert(slots, key(value))) size++;
+    }
+
+    synchronized void remove(long value) {
+        long key = key(value);
+        int mask = slots.length - 1;
+        int i = index(key, mask);
+        while (slots[i] != key) {
+            if (slots[i] == 0) return;
+            i = (i + 1) & mask;
+        }
+
+        // puxa para o buraco quem, sem ele, não seria mais encontrado a partir da posição ideal
+        int hole = i;
+        for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+            int ideal = index(slots[j], mask);
+            if (((j - ideal) & mask) >= ((j - hole) & mask)) {
+                slots[hole] = slots[j];
+                hole = j;
+            }
+        }
+        slots[hole] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        var bigger = new long[capacity];
+        for (long key : slots) {
+            if (key != 0) insert(bigger, key);
+        }
+        slots = bigger;
+    }
+
+    private static boolean insert(long[] table, long key) {
+        int mask = table.length - 1;
+        int i = index(key, mask);
+        while (table[i] != 0) {
+            if (table[i] == key) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        return true;
+    }
+
+    private static long key(long value) {
+        return value == 0 ? 1 : value;
+    }
+
+    // bits altos misturados (os hashes de entrada podem variar pouco nos bits baixos)
+    private static int index(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 2L) capacity <<= 1;
+        return capacity;
+    }
+}
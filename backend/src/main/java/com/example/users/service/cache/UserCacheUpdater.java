@@ -0,0 +1,69 @@
+package com.example.users.service.cache;
+
+import com.example.users.config.CacheConfig;
+import com.example.users.dto.UserDto;
+import com.example.users.event.UserChangedEvent;
+import com.example.users.event.UsersBulkChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentMap;
+
+// Atualiza o cache de findById somente após o commit: leitores nunca veem dados não confirmados.
+// O afterCommit de duas transações pode rodar fora de ordem, então uma alteração só substitui o valor em cache
+// se tiver version maior. Chave ausente continua ausente: carregada na próxima leitura, nunca recriada por um
+// evento atrasado (ex.: depois da remoção).
+@Component
+public class UserCacheUpdater {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        var cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (cache != null) apply(cache, event);
+    }
+
+    @TransactionalEventListener
+    public void onUsersChanged(UsersBulkChangedEvent event) {
+        var cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        // lotes só removem: um put por linha alterada encheria o cache (limitado) com usuários que ninguém leu.
+        // evict de chave ausente não faz nada; quem estava no cache é recarregado na próxima leitura
+        if (cache == null) return;
+        event.changes().forEach(change -> {
+            var user = change.after() != null ? change.after() : change.before();
+            if (user != null) cache.evict(user.getId());
+        });
+    }
+
+    private void apply(Cache cache, UserChangedEvent event) {
+        var after = event.after();
+        if (after != null && event.before() != null) {
+            var users = nativeMap(cache);
+            if (users == null || after.getVersion() == null) {
+                cache.evict(after.getId());
+                return;
+            }
+            users.computeIfPresent(after.getId(), (id, cached) -> isNewer(after, cached) ? after : cached);
+        } else if (event.before() != null) {
+            cache.evict(event.before().getId());
+        }
+        // criações não entram no cache: só é carregado o que for lido
+    }
+
+    private static boolean isNewer(UserDto after, Object cached) {
+        return !(cached instanceof UserDto u) || u.getVersion() == null || u.getVersion() < after.getVersion();
+    }
+
+    // mapa do Caffeine por trás do cache (CacheConfig); null com outro provedor, que então só remove
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<Object, Object> nativeMap(Cache cache) {
+        return cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine
+                ? (ConcurrentMap<Object, Object>) caffeine.asMap()
+                : null;
+    }
+}
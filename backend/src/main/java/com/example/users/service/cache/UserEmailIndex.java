@@ -0,0 +1,90 @@
+package com.example.users.service.cache;
+
+import com.example.users.event.UserChangedEvent;
+import com.example.users.event.UsersBulkChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Índice em memória dos e-mails cadastrados (hash de 64 bits do e-mail em minúsculas, em um LongHashSet: ~16 bytes
+// por e-mail). mightContain == false significa "livre até onde esta instância sabe" e dispensa o existsByEmailIgnoreCase;
+// true pode ser colisão ou e-mail removido em outra instância, então o validador confirma no banco.
+// Depois da carga, o conjunto só recebe as escritas desta instância: com várias instâncias, um e-mail cadastrado em
+// outra aparece como livre e a criação cai no índice único ux_users_email_ci, a garantia final (409 no
+// GlobalExceptionHandler).
+@Slf4j
+@Component
+public class UserEmailIndex {
+
+    private final LongHashSet hashes = new LongHashSet(1024);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Value("${app.users.email-index.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean loaded;
+
+    // adições feitas pelos commits durante a carga vão para o mesmo conjunto; no pior caso sobra
+    // um e-mail já removido (falso positivo, que só custa a consulta ao banco)
+    // dentro de transação para o driver respeitar o fetch size (cursor no servidor); sem readOnly para ler
+    // do primário: um e-mail ainda não replicado ficaria fora do índice
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        if (!enabled) return;
+
+        long start = System.currentTimeMillis();
+        jdbc.query(con -> {
+            var ps = con.prepareStatement("SELECT LOWER(email) FROM users");
+            ps.setFetchSize(10_000);
+            return ps;
+        }, rs -> {
+            hashes.add(hash(rs.getString(1)));
+        });
+        loaded = true;
+
+        log.info("Índice de e-mails carregado: {} e-mails em {} ms", hashes.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean mightContain(String email) {
+        if (!loaded || email == null) return true;
+        return hashes.contains(hash(email.toLowerCase()));
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (enabled) apply(event);
+    }
+
+    @TransactionalEventListener
+    public void onUsersChanged(UsersBulkChangedEvent event) {
+        if (enabled) event.changes().forEach(this::apply);
+    }
+
+    private void apply(UserChangedEvent event) {
+        var before = event.before() == null ? null : event.before().getEmail();
+        var after = event.after() == null ? null : event.after().getEmail();
+        if (before != null && before.equalsIgnoreCase(after)) return;
+
+        if (after != null) hashes.add(hash(after.toLowerCase()));
+        if (before != null) hashes.remove(hash(before.toLowerCase()));
+    }
+
+    // FNV-1a de 64 bits
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
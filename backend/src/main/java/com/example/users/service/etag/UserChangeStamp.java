@@ -0,0 +1,54 @@
+package com.example.users.service.etag;
+
+import com.example.users.event.UserChangedEvent;
+import com.example.users.event.UsersBulkChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Carimbo de alteração da tabela users (sequência users_change_seq), compartilhado entre réplicas da aplicação.
+// Só avança depois do commit e uma vez por transação: quem lê o carimbo novo já enxerga os dados novos,
+// então um ETag nunca associa o carimbo novo a dados antigos.
+@Component
+public class UserChangeStamp {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // sequência nova tem last_value = 1 com is_called = false, o mesmo valor do primeiro nextval: antes dele vale 0
+    public long current() {
+        Long value = jdbc.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM users_change_seq", Long.class);
+        return value == null ? 0 : value;
+    }
+
+    @EventListener({UserChangedEvent.class, UsersBulkChangedEvent.class})
+    public void onUserChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) return;
+
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                advance();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(UserChangeStamp.this);
+            }
+        });
+    }
+
+    // nextval não é transacional: vale mesmo fora da transação que acabou de commitar
+    private void advance() {
+        jdbc.queryForObject("SELECT nextval('users_change_seq')", Long.class);
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.users.service.eventos;
+
+import com.example.users.service.stats.UserStatsCounter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Lê o outbox (users_outbox) e distribui cada evento a todos os inscritos em /api/users/events.
+// A ordem é a do tx_id (início da transação), não a do commit: duas transações na mesma linha podem chegar na ordem
+// inversa, então o cliente aplica um usuário só se a version for maior que a que já tem.
+// Cada inscrito tem fila limitada e thread virtual própria para o envio: um cliente lento não atrasa os outros;
+// se a fila enche, a conexão é encerrada e o navegador reconecta com Last-Event-ID, retomando pelo outbox.
+// Cada instância da aplicação lê o outbox inteiro, então vale com várias instâncias atrás do balanceador.
+@Slf4j
+@Component
+public class UserEventHub {
+
+    // só transações abaixo do xmin do snapshot: todas já terminaram, e qualquer uma que ainda vá commitar
+    // tem tx_id maior que o cursor (ver V9__users_outbox.sql)
+    private static final String SELECT_COMMITTED = """
+            SELECT tx_id::text AS tx_id, id, payload FROM users_outbox
+            WHERE (tx_id, id) > (?::xid8, ?) AND tx_id < pg_snapshot_xmin(pg_current_snapshot())
+            ORDER BY tx_id, id LIMIT ?
+            """;
+
+    private static final String SELECT_RANGE = """
+            SELECT tx_id::text AS tx_id, id, payload FROM users_outbox
+            WHERE (tx_id, id) > (?::xid8, ?) AND (tx_id, id) <= (?::xid8, ?)
+            ORDER BY tx_id, id LIMIT ?
+            """;
+
+    private static final String SELECT_LAST_COMMITTED = """
+            SELECT tx_id::text AS tx_id, id, NULL AS payload FROM users_outbox
+            WHERE tx_id < pg_snapshot_xmin(pg_current_snapshot())
+            ORDER BY tx_id DESC, id DESC LIMIT 1
+            """;
+
+    private static final int BATCH_SIZE = 500;
+
+    // marca na fila de um inscrito descartado por lentidão
+    private static final Event EVICTED = new Event(null, null);
+
+    private static final TypeReference<Map<String, Map<String, Long>>> STATS_TYPE = new TypeReference<>() {
+    };
+
+    private static final RowMapper<Event> EVENT_MAPPER = (rs, i) -> new Event(
+            new Cursor(Long.parseLong(rs.getString("tx_id")), rs.getLong("id")),
+            rs.getString("payload")
+    );
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserStatsCounter statsCounter;
+
+    @Value("${app.users.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.users.events.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.users.events.heartbeat:PT15S}")
+    private Duration heartbeat;
+
+    @Value("${app.users.events.retention:PT1H}")
+    private Duration retention;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // último evento distribuído; null até a primeira leitura do outbox
+    private Cursor cursor;
+
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("users.events.subscribers", subscribers, Set::size)
+                .description("Conexões abertas em /api/users/events")
+                .register(registry);
+        evictions = Counter.builder("users.events.evictions")
+                .description("Conexões encerradas por fila cheia (cliente lento)")
+                .register(registry);
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        var emitter = new SseEmitter(timeout.toMillis());
+        var subscriber = new Subscriber(emitter);
+
+        // entra na distribuição e fixa até onde a retomada lê do banco no mesmo passo: sem lacuna nem repetição
+        Cursor replayUpTo;
+        synchronized (this) {
+            replayUpTo = cursor;
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        Thread.ofVirtual().name("users-sse").start(() -> subscriber.run(lastEventId, replayUpTo));
+        return emitter;
+    }
+
+    // Instala nos contadores as contagens da tabela no horizonte (só transações com tx_id < horizon, ver
+    // UserStatsReconciler), levadas ao cursor da distribuição com a variação dos eventos entre os dois; daí em
+    // diante o poll aplica cada evento distribuído. Lê o outbox sob o lock do hub (pausa só a distribuição,
+    // nunca as escritas), e o trecho entre horizonte e cursor é curto: os dois ficam abaixo do mesmo xmin.
+    public synchronized void installStats(Map<String, Map<String, Long>> counts, long horizon) {
+        var position = new Cursor(horizon, 0);
+        if (cursor == null) {
+            var last = jdbc.query(SELECT_LAST_COMMITTED, EVENT_MAPPER);
+            cursor = last.isEmpty() ? new Cursor(0, 0) : last.get(0).cursor();
+        }
+
+        // cursor depois do horizonte: soma os eventos que faltam; antes: desconta os que o poll ainda vai aplicar
+        var from = position.compareTo(cursor) < 0 ? position : cursor;
+        var to = position.compareTo(cursor) < 0 ? cursor : position;
+        long sign = position.compareTo(cursor) < 0 ? 1 : -1;
+        while (from.compareTo(to) < 0) {
+            var events = jdbc.query(SELECT_RANGE, EVENT_MAPPER, Long.toString(from.txId()), from.id(),
+                    Long.toString(to.txId()), to.id(), BATCH_SIZE);
+            for (var event : events) {
+                stats(event.payload()).forEach((dimension, values) ->
+                        UserStatsCounter.add(counts.computeIfAbsent(dimension, k -> new HashMap<>()), values, sign));
+            }
+            if (events.size() < BATCH_SIZE) break;
+            from = events.get(events.size() - 1).cursor();
+        }
+        statsCounter.replace(counts, cursor.eventId());
+    }
+
+    // variação das estatísticas gravada no evento (UserEventMessage.stats)
+    public Map<String, Map<String, Long>> stats(String payload) {
+        try {
+            var stats = objectMapper.readTree(payload).path("stats");
+            return stats.isObject() ? objectMapper.convertValue(stats, STATS_TYPE) : Map.of();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.events.poll-interval:PT0.2S}")
+    public void poll() {
+        if (cursor == null) {
+            var last = jdbc.query(SELECT_LAST_COMMITTED, EVENT_MAPPER);
+            synchronized (this) {
+                // installStats pode ter fixado o cursor enquanto a consulta rodava
+                if (cursor == null) cursor = last.isEmpty() ? new Cursor(0, 0) : last.get(0).cursor();
+            }
+            return;
+        }
+
+        List<Event> events;
+        do {
+            events = jdbc.query(SELECT_COMMITTED, EVENT_MAPPER, Long.toString(cursor.txId()), cursor.id(), BATCH_SIZE);
+            synchronized (this) {
+                for (var event : events) {
+                    cursor = event.cursor();
+                    if (statsCounter.isLoaded()) statsCounter.apply(stats(event.payload()), cursor.eventId());
+                    subscribers.forEach(s -> s.offer(event));
+                }
+            }
+        } while (events.size() == BATCH_SIZE);
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.events.purge-interval:PT10M}")
+    public void purge() {
+        int purged = jdbc.update("DELETE FROM users_outbox WHERE created_at < LOCALTIMESTAMP - ? * INTERVAL '1 second'",
+                retention.toSeconds());
+        if (purged > 0) log.debug("Eventos expurgados do outbox: {}", purged);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    private record Cursor(long txId, long id) implements Comparable<Cursor> {
+
+        // Last-Event-ID: "<tx_id>-<id>"; null se ausente ou malformado
+        static Cursor parse(String eventId) {
+            if (eventId == null || eventId.isBlank()) return null;
+            var parts = eventId.trim().split("-");
+            try {
+                return parts.length == 2 ? new Cursor(Long.parseLong(parts[0]), Long.parseLong(parts[1])) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String eventId() {
+            return txId + "-" + id;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int byTx = Long.compare(txId, other.txId);
+            return byTx != 0 ? byTx : Long.compare(id, other.id);
+        }
+    }
+
+    private record Event(Cursor cursor, String payload) {
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private volatile boolean closed;
+
+        // só usado na thread de envio: descarta o que já foi enviado (retomada + distribuição ao vivo)
+        private Cursor lastSent;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // chamado na thread do poll, sob o lock do hub: nunca bloqueia
+        void offer(Event event) {
+            if (closed || queue.offer(event)) return;
+            closed = true;
+            subscribers.remove(this);
+            evictions.increment();
+            queue.clear();
+            queue.offer(EVICTED);
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        void run(String lastEventId, Cursor replayUpTo) {
+            try {
+                emitter.send(SseEmitter.event().comment("conectado").reconnectTime(2000));
+                if (lastEventId != null) replay(Cursor.parse(lastEventId), replayUpTo);
+
+                while (!closed || !queue.isEmpty()) {
+                    var event = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (event == EVICTED) break;
+                    if (event == null) emitter.send(SseEmitter.event().comment("ping"));
+                    else send(event);
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // cliente desconectou ou o emitter já foi encerrado (timeout/erro)
+                close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            }
+        }
+
+        // eventos entre o Last-Event-ID e o ponto em que a distribuição ao vivo começou para este inscrito;
+        // se o evento já saiu do outbox (ou o id é inválido), o cliente precisa recarregar tudo
+        private void replay(Cursor from, Cursor upTo) throws IOException {
+            if (upTo == null || from == null || !exists(from)) {
+                emitter.send(SseEmitter.event().name("resync").data("{}"));
+                return;
+            }
+            lastSent = from;
+            var position = from;
+            while (position.compareTo(upTo) < 0) {
+                var events = jdbc.query(SELECT_RANGE, EVENT_MAPPER, Long.toString(position.txId()), position.id(),
+                        Long.toString(upTo.txId()), upTo.id(), BATCH_SIZE);
+                for (var event : events) send(event);
+                if (events.size() < BATCH_SIZE) break;
+                position = events.get(events.size() - 1).cursor();
+            }
+        }
+
+        private boolean exists(Cursor c) {
+            return Boolean.TRUE.equals(jdbc.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM users_outbox WHERE tx_id = ?::xid8 AND id = ?)",
+                    Boolean.class, Long.toString(c.txId()), c.id()));
+        }
+
+        private void send(Event event) throws IOException {
+            if (lastSent != null && event.cursor().compareTo(lastSent) <= 0) return;
+            lastSent = event.cursor();
+            emitter.send(SseEmitter.event().id(event.cursor().eventId()).name("change").data(event.payload()));
+        }
+    }
+}
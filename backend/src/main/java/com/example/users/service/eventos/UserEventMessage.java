@@ -0,0 +1,16 @@
+package com.example.users.service.eventos;
+
+import com.example.users.dto.UserDto;
+
+import java.util.List;
+import java.util.Map;
+
+// Conteúdo de um evento SSE: as alterações de uma transação e a variação das estatísticas que elas causam
+// (stats.byJobTitle/bySystemRole/byActive, somadas aos valores de GET /api/users/stats).
+// resync: o lote passou de app.users.events.max-changes; changes vem vazio e quem mostra usuários recarrega a lista
+public record UserEventMessage(List<Change> changes, Map<String, Map<String, Long>> stats, boolean resync) {
+
+    // type: created, updated ou deleted; em deleted, user é o estado antes da exclusão
+    public record Change(String type, UserDto user) {
+    }
+}
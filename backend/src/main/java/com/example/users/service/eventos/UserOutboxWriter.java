@@ -0,0 +1,63 @@
+package com.example.users.service.eventos;
+
+import com.example.users.event.UserChangedEvent;
+import com.example.users.event.UsersBulkChangedEvent;
+import com.example.users.service.stats.UserStatsCounter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Grava o evento no outbox dentro da transação de escrita (listener síncrono, não @TransactionalEventListener):
+// o evento existe se e somente se a escrita commitou. Um lote vira um único evento; acima de maxChanges ele leva só
+// a variação das estatísticas e resync (a linha é enviada a todos os inscritos: 100 mil usuários seriam vários MB).
+// A mensagem é serializada à mão (não é retorno de controller): a dica de reflexão é para a imagem nativa.
+@Component
+@RegisterReflectionForBinding(UserEventMessage.class)
+public class UserOutboxWriter {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.users.events.max-changes:500}")
+    private int maxChanges;
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        write(List.of(event));
+    }
+
+    @EventListener
+    public void onUsersChanged(UsersBulkChangedEvent event) {
+        if (!event.changes().isEmpty()) write(event.changes());
+    }
+
+    private void write(List<UserChangedEvent> changes) {
+        boolean resync = changes.size() > maxChanges;
+        var message = new UserEventMessage(
+                resync ? List.of() : changes.stream().map(UserOutboxWriter::toChange).toList(),
+                UserStatsCounter.delta(changes),
+                resync
+        );
+        try {
+            jdbc.update("INSERT INTO users_outbox (payload) VALUES (?)", objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UserEventMessage.Change toChange(UserChangedEvent event) {
+        if (event.before() == null) return new UserEventMessage.Change("created", event.after());
+        if (event.after() == null) return new UserEventMessage.Change("deleted", event.before());
+        return new UserEventMessage.Change("updated", event.after());
+    }
+}
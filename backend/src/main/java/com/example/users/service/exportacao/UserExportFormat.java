@@ -0,0 +1,34 @@
+package com.example.users.service.exportacao;
+
+public enum UserExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    // binários: um objeto por usuário, em sequência (CBOR sequence, RFC 8742; Smile aceita vários valores raiz)
+    CBOR("application/cbor-seq", "cbor"),
+    SMILE("application/x-jackson-smile", "smile");
+
+    private final String contentType;
+    private final String extension;
+
+    UserExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static UserExportFormat parse(String value) {
+        if (value == null || value.isBlank()) return CSV;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format inválido. Use: csv, ndjson, cbor ou smile.");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.users.service.exportacao;
+
+import com.example.users.dto.UserDto;
+import com.example.users.dto.UserFilter;
+import com.example.users.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+// Exportação em streaming: as linhas vêm do cursor do banco (UserService.streamSearch) e vão
+// direto para o OutputStream da resposta, então o heap não cresce com o número de registros.
+@Service
+public class UserExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // mesma configuração (módulos, datas) do ObjectMapper do Spring, com outro formato de saída
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+
+    @PostConstruct
+    void init() {
+        cborMapper = objectMapper.copyWith(new CBORFactory());
+        smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    public void export(UserFilter filter, UserExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        var target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        if (format == UserExportFormat.CBOR || format == UserExportFormat.SMILE) {
+            writeBinary(filter, format == UserExportFormat.CBOR ? cborMapper : smileMapper, target);
+            return;
+        }
+        try (var writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            switch (format) {
+                case CSV -> writeCsv(filter, writer);
+                case NDJSON -> writeNdjson(filter, writer);
+                default -> throw new IllegalStateException("formato binário: " + format);
+            }
+        }
+    }
+
+    private void writeCsv(UserFilter filter, Writer writer) throws IOException {
+        writer.write("id,name,email,jobTitle,systemRole,active\n");
+        userService.streamSearch(filter, u -> {
+            try {
+                writer.write(String.valueOf(u.getId()));
+                writer.write(',');
+                writer.write(csv(u.getName()));
+                writer.write(',');
+                writer.write(csv(u.getEmail()));
+                writer.write(',');
+                writer.write(csv(u.getJobTitle()));
+                writer.write(',');
+                writer.write(String.valueOf(u.getSystemRole()));
+                writer.write(',');
+                writer.write(String.valueOf(u.getActive()));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(UserFilter filter, Writer writer) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(writer)) {
+            gen.setRootValueSeparator(null);
+            userService.streamSearch(filter, (UserDto u) -> {
+                try {
+                    gen.writeObject(u);
+                    gen.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeBinary(UserFilter filter, ObjectMapper mapper, OutputStream target) throws IOException {
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(new BufferedOutputStream(target, BUFFER_SIZE))) {
+            userService.streamSearch(filter, (UserDto u) -> {
+                try {
+                    gen.writeObject(u);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
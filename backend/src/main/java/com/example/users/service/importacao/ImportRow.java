@@ -0,0 +1,15 @@
+package com.example.users.service.importacao;
+
+import com.example.users.dto.UserDto;
+
+// Registro lido do arquivo: ou um usuário, ou o erro de leitura/conversão daquela linha
+record ImportRow(long row, UserDto user, String error) {
+
+    static ImportRow of(long row, UserDto user) {
+        return new ImportRow(row, user, null);
+    }
+
+    static ImportRow failed(long row, String error) {
+        return new ImportRow(row, null, error);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.users.service.importacao;
+
+import com.example.users.dto.UserDto;
+import com.example.users.model.SystemRole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Leitor CSV (RFC 4180: aspas, aspas escapadas e quebras de linha dentro de aspas) que
+// entrega um registro por vez, sem carregar o arquivo inteiro em memória.
+// Cabeçalho obrigatório: name,email,jobTitle,systemRole,active (separador "," ou ";").
+class UserCsvReader implements Iterator<ImportRow> {
+
+    private final BufferedReader in;
+    private final char separator;
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private List<String> nextRecord;
+    private long row;
+
+    UserCsvReader(Reader reader) {
+        this.in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        try {
+            in.mark(8192);
+            String headerLine = in.readLine();
+            if (headerLine == null) throw new IllegalArgumentException("CSV vazio.");
+            in.reset();
+
+            this.separator = headerLine.indexOf(';') >= 0 && headerLine.indexOf(',') < 0 ? ';' : ',';
+
+            var header = readRecord();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(normalize(header.get(i)), i);
+            }
+            // compatibilidade: role -> jobTitle
+            if (!columns.containsKey("jobtitle") && columns.containsKey("role")) {
+                columns.put("jobtitle", columns.get("role"));
+            }
+            if (!columns.containsKey("email")) {
+                throw new IllegalArgumentException("Cabeçalho do CSV sem a coluna email.");
+            }
+
+            nextRecord = readRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRecord != null;
+    }
+
+    @Override
+    public ImportRow next() {
+        if (nextRecord == null) throw new NoSuchElementException();
+        var record = nextRecord;
+        row++;
+        try {
+            nextRecord = readRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return toRow(row, record);
+    }
+
+    private ImportRow toRow(long row, List<String> record) {
+        var dto = new UserDto();
+        dto.setName(value(record, "name"));
+        dto.setEmail(value(record, "email"));
+        dto.setJobTitle(value(record, "jobtitle"));
+
+        var systemRole = value(record, "systemrole");
+        if (systemRole != null) {
+            try {
+                dto.setSystemRole(SystemRole.valueOf(systemRole.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                return ImportRow.failed(row, "systemRole inválido. Use: ADMIN, MANAGER ou USER.");
+            }
+        }
+
+        var active = value(record, "active");
+        if (active != null) dto.setActive(Boolean.parseBoolean(active));
+
+        return ImportRow.of(row, dto);
+    }
+
+    private String value(List<String> record, String column) {
+        var index = columns.get(column);
+        if (index == null || index >= record.size()) return null;
+        var v = record.get(index).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    // lê o próximo registro não vazio; null no fim do arquivo
+    private List<String> readRecord() throws IOException {
+        while (true) {
+            var fields = new ArrayList<String>();
+            var field = new StringBuilder();
+            boolean inQuotes = false;
+            boolean read = false;
+            int c;
+
+            while ((c = in.read()) != -1) {
+                read = true;
+                char ch = (char) c;
+                if (inQuotes) {
+                    if (ch == '"') {
+                        in.mark(1);
+                        if (in.read() == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            in.reset();
+                        }
+                    } else {
+                        field.append(ch);
+                    }
+                } else if (ch == '"') {
+                    inQuotes = true;
+                } else if (ch == separator) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\n') {
+                    break;
+                } else if (ch != '\r') {
+                    field.append(ch);
+                }
+            }
+
+            if (!read) return null;
+            fields.add(field.toString());
+
+            boolean blank = fields.size() == 1 && fields.get(0).isBlank();
+            if (!blank) return fields;
+        }
+    }
+
+    private static String normalize(String header) {
+        return header.trim().replace("_", "").replace("\uFEFF", "").toLowerCase();
+    }
+}
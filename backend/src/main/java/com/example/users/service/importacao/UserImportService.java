@@ -0,0 +1,199 @@
+package com.example.users.service.importacao;
+
+import com.example.users.dto.ImportErrorDto;
+import com.example.users.dto.ImportResultDto;
+import com.example.users.dto.UserDto;
+import com.example.users.event.UserChangedEvent;
+import com.example.users.event.UsersBulkChangedEvent;
+import com.example.users.model.SystemRole;
+import com.example.users.service.cache.UserEmailIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Importação em lote: valida cada linha, confere unicidade de e-mail com uma consulta por bloco
+// e insere o bloco inteiro em uma única instrução (sem o INSERT por linha do JPA com IDENTITY).
+@Service
+public class UserImportService {
+
+    private static final String INSERT_CHUNK = """
+            INSERT INTO users (name, email, job_title, system_role, active)
+            SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::boolean[])
+            ON CONFLICT DO NOTHING
+            RETURNING id, name, email, job_title, system_role, active, version
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private UserEmailIndex emailIndex;
+
+    @Value("${app.users.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public ImportResultDto importCsv(InputStream in) {
+        return importRows(new UserCsvReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    public ImportResultDto importJson(InputStream in) {
+        return importRows(new UserJsonReader(objectMapper, in));
+    }
+
+    private ImportResultDto importRows(Iterator<ImportRow> rows) {
+        long start = System.nanoTime();
+        long total = 0;
+        long imported = 0;
+
+        var errors = new ArrayList<ImportErrorDto>();
+        var seenEmails = new HashSet<String>();
+        var chunk = new ArrayList<ImportRow>(chunkSize);
+
+        while (rows.hasNext()) {
+            var row = rows.next();
+            total++;
+
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error == null && !seenEmails.add(row.user().getEmail().toLowerCase())) {
+                error = "Email duplicado no arquivo.";
+            }
+            if (error != null) {
+                errors.add(new ImportErrorDto(row.row(), row.user() == null ? null : row.user().getEmail(), error));
+                continue;
+            }
+
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                imported += insertChunk(chunk, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) imported += insertChunk(chunk, errors);
+
+        errors.sort(Comparator.comparingLong(ImportErrorDto::getRow));
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double rowsPerSecond = imported * 1000.0 / elapsedMs;
+
+        return new ImportResultDto(total, imported, total - imported, errors, elapsedMs, rowsPerSecond);
+    }
+
+    // cada bloco em sua própria transação: um bloco com erro não desfaz os anteriores
+    private long insertChunk(List<ImportRow> chunk, List<ImportErrorDto> errors) {
+        Long inserted = tx.execute(status -> {
+            // só consulta o banco para os e-mails que o índice em memória não garante estarem livres
+            var emails = chunk.stream()
+                    .map(r -> r.user().getEmail().toLowerCase())
+                    .filter(emailIndex::mightContain)
+                    .toList();
+
+            Set<String> taken = emails.isEmpty() ? Set.of() : new HashSet<>(namedJdbc.queryForList(
+                    "SELECT LOWER(email) FROM users WHERE LOWER(email) IN (:emails)",
+                    Map.of("emails", emails),
+                    String.class
+            ));
+
+            var toInsert = new ArrayList<ImportRow>(chunk.size());
+            for (var row : chunk) {
+                if (taken.contains(row.user().getEmail().toLowerCase())) {
+                    errors.add(new ImportErrorDto(row.row(), row.user().getEmail(), "Email já cadastrado."));
+                } else {
+                    toInsert.add(row);
+                }
+            }
+            if (toInsert.isEmpty()) return 0L;
+
+            var created = insert(toInsert);
+
+            // ON CONFLICT DO NOTHING: e-mail cadastrado por outra requisição entre a consulta e o insert
+            var createdEmails = created.stream().map(u -> u.getEmail().toLowerCase()).collect(Collectors.toSet());
+            for (var row : toInsert) {
+                if (!createdEmails.contains(row.user().getEmail().toLowerCase())) {
+                    errors.add(new ImportErrorDto(row.row(), row.user().getEmail(), "Email já cadastrado."));
+                }
+            }
+
+            events.publishEvent(new UsersBulkChangedEvent(created.stream().map(UserChangedEvent::created).toList()));
+            return (long) created.size();
+        });
+        return inserted == null ? 0 : inserted;
+    }
+
+    private List<UserDto> insert(List<ImportRow> rows) {
+        int n = rows.size();
+        var names = new String[n];
+        var emails = new String[n];
+        var jobTitles = new String[n];
+        var systemRoles = new String[n];
+        var actives = new Boolean[n];
+
+        for (int i = 0; i < n; i++) {
+            var u = rows.get(i).user();
+            names[i] = u.getName();
+            emails[i] = u.getEmail();
+            jobTitles[i] = u.getJobTitle();
+            systemRoles[i] = u.getSystemRole().name();
+            actives[i] = u.getActive() == null ? true : u.getActive();
+        }
+
+        return jdbc.query(con -> {
+            var ps = con.prepareStatement(INSERT_CHUNK);
+            ps.setArray(1, con.createArrayOf("varchar", names));
+            ps.setArray(2, con.createArrayOf("varchar", emails));
+            ps.setArray(3, con.createArrayOf("varchar", jobTitles));
+            ps.setArray(4, con.createArrayOf("varchar", systemRoles));
+            ps.setArray(5, con.createArrayOf("boolean", actives));
+            return ps;
+        }, (rs, i) -> new UserDto(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("job_title"),
+                SystemRole.valueOf(rs.getString("system_role")),
+                rs.getBoolean("active"),
+                rs.getLong("version")
+        ));
+    }
+
+    private String validate(UserDto dto) {
+        var violations = validator.validate(dto);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.users.service.importacao;
+
+import com.example.users.dto.UserDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Lê um array JSON de usuários elemento a elemento (streaming), convertendo cada item
+// isoladamente para que um item inválido vire erro daquela linha e não da importação toda.
+class UserJsonReader implements Iterator<ImportRow> {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private JsonToken current;
+    private long row;
+
+    UserJsonReader(ObjectMapper objectMapper, InputStream in) {
+        this.objectMapper = objectMapper;
+        try {
+            this.parser = objectMapper.getFactory().createParser(in);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("O corpo deve ser um array JSON de usuários.");
+            }
+            current = parser.nextToken();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return current != null && current != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public ImportRow next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        row++;
+        try {
+            JsonNode node = parser.readValueAsTree();
+            current = parser.nextToken();
+
+            if (node == null || !node.isObject()) {
+                return ImportRow.failed(row, "Item não é um objeto JSON.");
+            }
+            try {
+                return ImportRow.of(row, objectMapper.treeToValue(node, UserDto.class));
+            } catch (JsonProcessingException e) {
+                return ImportRow.failed(row, "Item inválido: " + e.getOriginalMessage());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.users.service.lote;
+
+import com.example.users.config.CacheConfig;
+import com.example.users.dto.BatchPatchItemDto;
+import com.example.users.dto.BatchPatchItemResultDto;
+import com.example.users.dto.BatchPatchResultDto;
+import com.example.users.dto.UserBatchDto;
+import com.example.users.dto.UserDto;
+import com.example.users.event.UserChangedEvent;
+import com.example.users.event.UsersBulkChangedEvent;
+import com.example.users.exception.UserNotFoundException;
+import com.example.users.exception.ValidacaoException;
+import com.example.users.exception.VersaoDesatualizadaException;
+import com.example.users.model.SystemRole;
+import com.example.users.repository.UserRepository;
+import com.example.users.service.UserMapper;
+import com.example.users.service.patch.UserPatchSchema;
+import com.example.users.service.validacoes.ValidadorTimers;
+import com.example.users.service.validacoes.patch.ValidadorPatchUsuario;
+import com.example.users.service.validacoes.update.ValidadorAtualizacaoUsuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Leitura e PATCH de vários usuários por requisição: uma consulta (id = ANY) para todos os ids
+// e um único lote JDBC de UPDATEs, em vez de uma requisição/transação/findById por usuário.
+@Service
+public class UserBatchService {
+
+    @Autowired
+    private UserRepository repo;
+
+    @Autowired
+    private List<ValidadorPatchUsuario> validadoresPatch;
+
+    @Autowired
+    private List<ValidadorAtualizacaoUsuario> validadoresAtualizacao;
+
+    @Autowired
+    private ValidadorTimers validadorTimers;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Value("${app.users.batch.max-items:500}")
+    private int maxItems;
+
+    // =========================
+    // LEITURA EM LOTE
+    // =========================
+
+    // quem já está no cache do findById não vai ao banco; o restante vem em uma consulta só.
+    // O cache não é preenchido aqui: só o UserCacheUpdater (após commit) e o findById (sync) escrevem nele.
+    @Transactional(readOnly = true)
+    public UserBatchDto findByIds(List<Long> ids) {
+        var distinct = distinct(ids);
+
+        var cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        var found = new HashMap<Long, UserDto>();
+        var misses = new ArrayList<Long>();
+        for (var id : distinct) {
+            var cached = cache == null ? null : cache.get(id, UserDto.class);
+            if (cached != null) found.put(id, cached);
+            else misses.add(id);
+        }
+        if (!misses.isEmpty()) {
+            repo.findByIds(misses).forEach(u -> found.put(u.getId(), u));
+        }
+
+        var items = new ArrayList<UserDto>(found.size());
+        var missing = new ArrayList<Long>();
+        for (var id : distinct) {
+            var user = found.get(id);
+            if (user != null) items.add(user);
+            else missing.add(id);
+        }
+        return new UserBatchDto(items, missing);
+    }
+
+    // =========================
+    // PATCH EM LOTE
+    // =========================
+
+    // Cada item passa pelos mesmos validadores do PATCH (body) e da atualização (estado final x atual) e recebe o
+    // status que o PATCH individual daria. Os válidos são gravados juntos, na mesma transação; os inválidos não
+    // impedem os demais. As linhas ficam travadas (FOR UPDATE) entre a validação e o UPDATE.
+    @Transactional
+    public BatchPatchResultDto patch(List<BatchPatchItemDto> items) {
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("No máximo " + maxItems + " itens por requisição.");
+        }
+
+        var results = new BatchPatchItemResultDto[items.size()];
+        var columnsByIndex = new LinkedHashMap<Integer, Map<String, Object>>();
+        var seenIds = new HashSet<Long>();
+
+        for (int i = 0; i < items.size(); i++) {
+            var item = items.get(i);
+            var id = item.getId();
+            var changes = item.getChanges() == null ? Map.<String, Object>of() : item.getChanges();
+
+            if (!seenIds.add(id)) {
+                results[i] = error(id, 400, "id repetido no lote.");
+                continue;
+            }
+            try {
+                validadoresPatch.forEach(v -> validadorTimers.medir("patch", v, () -> v.validar(id, changes)));
+                columnsByIndex.put(i, UserPatchSchema.toColumns(changes));
+            } catch (ValidacaoException | IllegalArgumentException e) {
+                results[i] = error(id, 400, e.getMessage());
+            }
+        }
+
+        var current = columnsByIndex.isEmpty() ? Map.<Long, UserDto>of()
+                : repo.lockByIds(columnsByIndex.keySet().stream().map(i -> items.get(i).getId()).toList()).stream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+
+        var toUpdate = new ArrayList<UserDto>();
+        var updateIndexes = new ArrayList<Integer>();
+        var newEmails = new HashSet<String>();
+
+        for (var entry : columnsByIndex.entrySet()) {
+            int i = entry.getKey();
+            var item = items.get(i);
+            var before = current.get(item.getId());
+
+            if (before == null) {
+                results[i] = error(item.getId(), 404, new UserNotFoundException(item.getId()).getMessage());
+                continue;
+            }
+            if (item.getVersion() != null && !item.getVersion().equals(before.getVersion())) {
+                results[i] = error(item.getId(), 412, new VersaoDesatualizadaException(item.getId()).getMessage());
+                continue;
+            }
+            if (entry.getValue().isEmpty()) {
+                results[i] = new BatchPatchItemResultDto(item.getId(), 200, before, null);
+                continue;
+            }
+
+            var after = apply(before, entry.getValue());
+            try {
+                var existing = UserMapper.toEntity(before);
+                validadoresAtualizacao.forEach(v -> validadorTimers.medir("atualizacao", v,
+                        () -> v.validar(item.getId(), after, existing)));
+            } catch (ValidacaoException | IllegalArgumentException e) {
+                results[i] = error(item.getId(), 400, e.getMessage());
+                continue;
+            }
+            // o índice único de e-mail derrubaria o lote inteiro: a colisão entre itens vira erro do item
+            if (!after.getEmail().equalsIgnoreCase(before.getEmail()) && !newEmails.add(after.getEmail().toLowerCase())) {
+                results[i] = error(item.getId(), 409, "Email repetido no lote.");
+                continue;
+            }
+
+            toUpdate.add(after);
+            updateIndexes.add(i);
+        }
+
+        var changes = new ArrayList<UserChangedEvent>(toUpdate.size());
+        if (!toUpdate.isEmpty()) {
+            int[] counts = repo.updateAll(toUpdate);
+            for (int k = 0; k < counts.length; k++) {
+                int i = updateIndexes.get(k);
+                var expected = toUpdate.get(k);
+                // não acontece com as linhas travadas; fica como guarda do "AND version = ?"
+                if (counts[k] == 0) {
+                    results[i] = error(expected.getId(), 409, "O usuário foi alterado por outra requisição. Recarregue e tente novamente.");
+                    continue;
+                }
+                var after = new UserDto(expected.getId(), expected.getName(), expected.getEmail(), expected.getJobTitle(),
+                        expected.getSystemRole(), expected.getActive(), expected.getVersion() + 1);
+                changes.add(UserChangedEvent.updated(current.get(after.getId()), after));
+                results[i] = new BatchPatchItemResultDto(after.getId(), 200, after, null);
+            }
+        }
+        if (!changes.isEmpty()) events.publishEvent(new UsersBulkChangedEvent(changes));
+
+        var list = List.of(results);
+        int updated = changes.size();
+        int failed = (int) list.stream().filter(r -> r.getStatus() != 200).count();
+        return new BatchPatchResultDto(updated, failed, list);
+    }
+
+    private LinkedHashSet<Long> distinct(Collection<Long> ids) {
+        var distinct = new LinkedHashSet<Long>(ids);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um id.");
+        }
+        if (distinct.size() > maxItems) {
+            throw new IllegalArgumentException("No máximo " + maxItems + " ids por requisição.");
+        }
+        return distinct;
+    }
+
+    // mesmas colunas do UserPatchSchema, aplicadas sobre o estado atual (a versão continua a lida)
+    private static UserDto apply(UserDto before, Map<String, Object> columns) {
+        return new UserDto(
+                before.getId(),
+                (String) columns.getOrDefault("name", before.getName()),
+                (String) columns.getOrDefault("email", before.getEmail()),
+                (String) columns.getOrDefault("job_title", before.getJobTitle()),
+                columns.containsKey("system_role") ? SystemRole.valueOf((String) columns.get("system_role")) : before.getSystemRole(),
+                (Boolean) columns.getOrDefault("active", before.getActive()),
+                before.getVersion()
+        );
+    }
+
+    private static BatchPatchItemResultDto error(Long id, int status, String message) {
+        return new BatchPatchItemResultDto(id, status, null, message);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.users.service.patch;
+
+import com.example.users.exception.ValidacaoException;
+import com.example.users.model.SystemRole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// Esquema tipado do PATCH: converte o body (Map) em coluna -> valor já validado.
+// Só colunas daqui entram no UPDATE, então o SQL dinâmico nunca recebe nome de coluna vindo do cliente.
+// Campos desconhecidos (ex.: id, version) e valores null são ignorados, como antes.
+public final class UserPatchSchema {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+
+    private record Field(String name, String column, Function<Object, Object> converter) {
+    }
+
+    // ordem importa: "role" (compatibilidade) sobrescreve "jobTitle", como no applyPatch original
+    private static final List<Field> FIELDS = List.of(
+            new Field("name", "name", v -> text("name", v, 150)),
+            new Field("email", "email", v -> email(v)),
+            new Field("jobTitle", "job_title", v -> text("jobTitle", v, 80)),
+            new Field("role", "job_title", v -> text("role", v, 80)),
+            new Field("systemRole", "system_role", v -> systemRole(v)),
+            new Field("active", "active", v -> bool(v))
+    );
+
+    private UserPatchSchema() {
+    }
+
+    public static Map<String, Object> toColumns(Map<String, Object> updates) {
+        var columns = new LinkedHashMap<String, Object>();
+        for (var field : FIELDS) {
+            var value = updates.get(field.name());
+            if (value != null) columns.put(field.column(), field.converter().apply(value));
+        }
+        return columns;
+    }
+
+    private static String text(String field, Object value, int max) {
+        var s = value.toString();
+        if (s.isBlank()) throw new ValidacaoException(field + " não pode ser vazio.");
+        if (s.length() > max) throw new ValidacaoException(field + " deve ter no máximo " + max + " caracteres.");
+        return s;
+    }
+
+    private static String email(Object value) {
+        var s = text("email", value, 200);
+        if (!EMAIL.matcher(s).matches()) throw new ValidacaoException("Invalid email format");
+        return s;
+    }
+
+    private static String systemRole(Object value) {
+        try {
+            return SystemRole.valueOf(value.toString().trim().toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            throw new ValidacaoException("systemRole inválido. Use: ADMIN, MANAGER ou USER.");
+        }
+    }
+
+    private static Boolean bool(Object value) {
+        if (value instanceof Boolean b) return b;
+        var s = value.toString().trim();
+        if (s.equalsIgnoreCase("true")) return true;
+        if (s.equalsIgnoreCase("false")) return false;
+        throw new ValidacaoException("active deve ser true ou false.");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.users.service.sincronizacao;
+
+import com.example.users.dto.UserChangesDto;
+import com.example.users.exception.SincronizacaoExpiradaException;
+import com.example.users.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+
+// Sincronização incremental: o token é o relógio do primário no início da chamada anterior, recuado ao início da
+// transação de escrita mais antiga ainda aberta (como o outbox não passa do xmin). Uma escrita que não commitou até
+// ali tem updated_at maior ou igual ao token, por mais longa que seja a transação. "overlap" cobre só o atraso da
+// réplica (commitada no primário, ainda não visível na consulta) e pode repetir itens já entregues.
+@Slf4j
+@Service
+public class UserChangesService {
+
+    @Autowired
+    private UserRepository repo;
+
+    // maior que o atraso aceito da réplica (app.users.datasource.replica-max-lag)
+    @Value("${app.users.changes.overlap:PT30S}")
+    private Duration overlap;
+
+    // tokens mais antigos que isso não têm mais os tombstones necessários (410)
+    @Value("${app.users.changes.tombstone-retention:P7D}")
+    private Duration retention;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private TransactionTemplate readOnlyTx;
+
+    @PostConstruct
+    void init() {
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    public UserChangesDto changesSince(String token) {
+        var since = decodeToken(token);
+
+        // fora de transação (primário) e antes das consultas (réplica): o que elas não enxergarem entra na próxima
+        var next = encodeToken(repo.writeHorizon());
+
+        return readOnlyTx.execute(status -> {
+            if (since != null && since.isBefore(repo.currentTimestamp().minus(retention))) {
+                throw new SincronizacaoExpiradaException();
+            }
+            if (since == null) return new UserChangesDto(repo.changedSince(null), List.of(), next);
+
+            var from = since.minus(overlap);
+            return new UserChangesDto(repo.changedSince(from), repo.deletedSince(from), next);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.changes.tombstone-purge-interval:PT1H}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = repo.purgeTombstones(repo.currentTimestamp().minus(retention));
+        if (purged > 0) log.info("Tombstones de usuários expurgados: {}", purged);
+    }
+
+    // microssegundos (precisão do timestamp do Postgres) desde a época, em UTC
+    static String encodeToken(LocalDateTime time) {
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), time);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(micros).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static LocalDateTime decodeToken(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            return LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(Long.parseLong(decoded), ChronoUnit.MICROS);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("since inválido.");
+        }
+    }
+}
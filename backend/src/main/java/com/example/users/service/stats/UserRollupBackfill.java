@@ -0,0 +1,81 @@
+package com.example.users.service.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+// Preenche os agregados com os cadastros anteriores a tracking_since (a partir daí o UserRollupWriter cuida).
+// Percorre users em faixas de id; cada faixa soma nos agregados e avança o cursor na mesma transação, então
+// uma faixa nunca conta duas vezes e uma queda retoma do cursor. FOR UPDATE SKIP LOCKED no estado deixa
+// uma instância só trabalhando. O histórico anterior só tem cadastros (com os atributos atuais do usuário):
+// ativações, desativações e remoções antigas não ficaram registradas.
+@Slf4j
+@Component
+public class UserRollupBackfill {
+
+    private static final String CLAIM = """
+            SELECT tracking_since, backfill_cursor FROM users_rollup_state
+            WHERE id = 1 AND backfill_done_at IS NULL
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    // created_at vem do NOW() da sessão (fuso do JVM que inseriu); convertido para UTC como os demais buckets
+    private static final String SIGNUPS = """
+            INSERT INTO %1$s AS r (bucket, system_role, job_title, active, signups)
+            SELECT date_trunc('%2$s', created_at AT TIME ZONE current_setting('TimeZone') AT TIME ZONE 'UTC'),
+                   system_role, COALESCE(job_title, ''), active, count(*)
+            FROM users
+            WHERE id > ? AND id <= ? AND created_at AT TIME ZONE current_setting('TimeZone') AT TIME ZONE 'UTC' < ?
+            GROUP BY 1, 2, 3, 4
+            ON CONFLICT (bucket, system_role, job_title, active) DO UPDATE SET signups = r.signups + EXCLUDED.signups
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Value("${app.users.rollups.backfill-chunk-size:10000}")
+    private int chunkSize;
+
+    // primeira execução logo após a subida; concluído, cada execução é só a consulta do estado.
+    // Para refazer: zerar backfill_cursor/backfill_done_at e os agregados anteriores a tracking_since
+    @Scheduled(fixedDelayString = "${app.users.rollups.backfill-interval:PT5M}")
+    public synchronized void backfill() {
+        long chunks = 0;
+        Long cursor;
+        while ((cursor = tx.execute(status -> nextChunk())) != null && cursor >= 0) {
+            chunks++;
+        }
+        if (chunks > 0) log.info("Backfill dos agregados de usuários concluído ({} faixas de {} ids).", chunks, chunkSize);
+    }
+
+    // id da última linha processada; -1 quando não há mais nada a processar; null sem o estado (travado/concluído)
+    private Long nextChunk() {
+        var state = jdbc.query(CLAIM, (rs, i) -> new Object[]{
+                rs.getObject("tracking_since", LocalDateTime.class), rs.getLong("backfill_cursor")});
+        if (state.isEmpty()) return null;
+
+        var since = (LocalDateTime) state.getFirst()[0];
+        long cursor = (Long) state.getFirst()[1];
+        Long maxId = jdbc.queryForObject("SELECT max(id) FROM users", Long.class);
+
+        if (maxId == null || cursor >= maxId) {
+            jdbc.update("UPDATE users_rollup_state SET backfill_done_at = clock_timestamp() AT TIME ZONE 'UTC' WHERE id = 1");
+            return -1L;
+        }
+
+        long to = Math.min(cursor + chunkSize, maxId);
+        jdbc.update(SIGNUPS.formatted("users_rollup_hourly", "hour"), cursor, to, since);
+        jdbc.update(SIGNUPS.formatted("users_rollup_daily", "day"), cursor, to, since);
+        jdbc.update("UPDATE users_rollup_state SET backfill_cursor = ? WHERE id = 1", to);
+        return to;
+    }
+}
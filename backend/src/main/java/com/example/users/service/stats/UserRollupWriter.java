@@ -0,0 +1,93 @@
+package com.example.users.service.stats;
+
+import com.example.users.dto.UserDto;
+import com.example.users.event.UserChangedEvent;
+import com.example.users.event.UsersBulkChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Soma as alterações nos agregados por hora/dia (users_rollup_*) antes do commit, na transação da escrita:
+// o agregado muda se e somente se a escrita commitou. Um lote vira um upsert por combinação
+// (system_role, job_title, active), em ordem fixa para dois lotes concorrentes não travarem em ciclo.
+@Component
+public class UserRollupWriter {
+
+    private static final String UPSERT = """
+            INSERT INTO %1$s AS r (bucket, system_role, job_title, active, signups, activations, deactivations, deletions)
+            VALUES (date_trunc('%2$s', clock_timestamp() AT TIME ZONE 'UTC'), ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (bucket, system_role, job_title, active) DO UPDATE SET
+              signups = r.signups + EXCLUDED.signups,
+              activations = r.activations + EXCLUDED.activations,
+              deactivations = r.deactivations + EXCLUDED.deactivations,
+              deletions = r.deletions + EXCLUDED.deletions
+            """;
+
+    private static final String UPSERT_HOURLY = UPSERT.formatted("users_rollup_hourly", "hour");
+
+    private static final String UPSERT_DAILY = UPSERT.formatted("users_rollup_daily", "day");
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::systemRole)
+            .thenComparing(Key::jobTitle)
+            .thenComparing(Key::active);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserChanged(UserChangedEvent event) {
+        write(List.of(event));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUsersChanged(UsersBulkChangedEvent event) {
+        write(event.changes());
+    }
+
+    private void write(List<UserChangedEvent> changes) {
+        var deltas = deltas(changes);
+        if (deltas.isEmpty()) return;
+
+        var args = new ArrayList<Object[]>(deltas.size());
+        deltas.forEach((key, d) -> args.add(new Object[]{key.systemRole(), key.jobTitle(), key.active(), d[0], d[1], d[2], d[3]}));
+        jdbc.batchUpdate(UPSERT_HOURLY, args);
+        jdbc.batchUpdate(UPSERT_DAILY, args);
+    }
+
+    // [signups, activations, deactivations, deletions] por combinação; alterações que não mudam active não contam
+    static Map<Key, long[]> deltas(List<UserChangedEvent> changes) {
+        var deltas = new TreeMap<Key, long[]>(KEY_ORDER);
+        for (var change : changes) {
+            var before = change.before();
+            var after = change.after();
+            if (before == null) {
+                add(deltas, after, 0);
+            } else if (after == null) {
+                add(deltas, before, 3);
+            } else if (isActive(before) != isActive(after)) {
+                add(deltas, after, isActive(after) ? 1 : 2);
+            }
+        }
+        return deltas;
+    }
+
+    private static void add(Map<Key, long[]> deltas, UserDto u, int measure) {
+        var key = new Key(String.valueOf(u.getSystemRole()), u.getJobTitle() == null ? "" : u.getJobTitle(), isActive(u));
+        deltas.computeIfAbsent(key, k -> new long[4])[measure]++;
+    }
+
+    private static boolean isActive(UserDto u) {
+        return Boolean.TRUE.equals(u.getActive());
+    }
+
+    record Key(String systemRole, String jobTitle, boolean active) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.users.service.stats;
+
+import com.example.users.dto.UserDto;
+import com.example.users.event.UserChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Contadores em memória; /stats lê daqui sem tocar no banco.
+// Seguem o outbox (users_outbox), não os commits desta instância: o UserEventHub aplica a variação de cada evento que
+// distribui, na mesma ordem para todas as instâncias, e os contadores guardam o id do último evento aplicado.
+// Assim os contadores de qualquer instância no mesmo eventId são iguais, e o cliente soma só os eventos SSE
+// posteriores a ele. Nenhuma escrita espera pelos contadores.
+@Slf4j
+@Component
+public class UserStatsCounter {
+
+    private static final List<String> DIMENSIONS = List.of("byJobTitle", "bySystemRole", "byActive");
+
+    // identifica esta instância + versão dos contadores (ETag de /stats); sobe depois de cada alteração
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private long generation;
+
+    private Map<String, Map<String, Long>> counts = empty();
+
+    // último evento do outbox já incluído; null até a primeira reconciliação
+    private String eventId;
+
+    public synchronized boolean isLoaded() {
+        return eventId != null;
+    }
+
+    public synchronized String version() {
+        return instanceId + "-" + generation;
+    }
+
+    // contagens (byJobTitle/bySystemRole/byActive) e o eventId a que correspondem, lidos juntos
+    public synchronized Stats snapshot() {
+        var copy = new HashMap<String, Map<String, Long>>();
+        counts.forEach((dimension, values) -> copy.put(dimension, new HashMap<>(values)));
+        return new Stats(copy, eventId);
+    }
+
+    // variação de um evento do outbox (chamado pelo UserEventHub, em ordem); ignorado antes da primeira carga
+    public synchronized void apply(Map<String, Map<String, Long>> delta, String eventId) {
+        if (this.eventId == null) return;
+        delta.forEach((dimension, values) -> {
+            var target = counts.get(dimension);
+            if (target != null) add(target, values, 1);
+        });
+        this.eventId = eventId;
+        generation++;
+    }
+
+    // substitui os contadores pelos recalculados a partir da tabela, já levados a eventId, e reporta divergências
+    public synchronized void replace(Map<String, Map<String, Long>> table, String eventId) {
+        var recalculated = empty();
+        table.forEach((dimension, values) -> {
+            var target = recalculated.get(dimension);
+            if (target != null) add(target, values, 1);
+        });
+
+        if (this.eventId != null && this.eventId.equals(eventId)) {
+            int drift = DIMENSIONS.stream().mapToInt(d -> reportDrift(d, counts.get(d), recalculated.get(d))).sum();
+            if (drift == 0) log.debug("Estatísticas de usuários conferidas: sem divergência.");
+        }
+
+        counts = recalculated;
+        this.eventId = eventId;
+        generation++;
+    }
+
+    // variação dos contadores causada pelas alterações, com as mesmas chaves do /stats (eventos SSE)
+    public static Map<String, Map<String, Long>> delta(List<UserChangedEvent> changes) {
+        var delta = empty();
+        for (var change : changes) {
+            addDelta(delta, change.before(), -1);
+            addDelta(delta, change.after(), 1);
+        }
+        delta.values().forEach(values -> values.values().removeIf(v -> v == 0));
+        return delta;
+    }
+
+    // soma (sign = 1) ou desconta (sign = -1) values em target; chaves zeradas são omitidas, como no GROUP BY original
+    public static void add(Map<String, Long> target, Map<String, Long> values, long sign) {
+        values.forEach((key, d) -> {
+            if (target.merge(key, sign * d, Long::sum) == 0) target.remove(key);
+        });
+    }
+
+    private static Map<String, Map<String, Long>> empty() {
+        var result = new HashMap<String, Map<String, Long>>();
+        DIMENSIONS.forEach(d -> result.put(d, new HashMap<>()));
+        return result;
+    }
+
+    private static void addDelta(Map<String, Map<String, Long>> delta, UserDto u, long d) {
+        if (u == null) return;
+        if (u.getJobTitle() != null) delta.get("byJobTitle").merge(u.getJobTitle(), d, Long::sum);
+        delta.get("bySystemRole").merge(String.valueOf(u.getSystemRole()), d, Long::sum);
+        delta.get("byActive").merge(Boolean.TRUE.equals(u.getActive()) ? "active" : "inactive", d, Long::sum);
+    }
+
+    private static int reportDrift(String dimension, Map<String, Long> memory, Map<String, Long> table) {
+        var keys = new HashSet<>(memory.keySet());
+        keys.addAll(table.keySet());
+
+        int drift = 0;
+        for (var key : keys) {
+            long inMemory = memory.getOrDefault(key, 0L);
+            long inTable = table.getOrDefault(key, 0L);
+            if (inMemory != inTable) {
+                log.warn("Divergência nas estatísticas de usuários: {}={} memória={} tabela={}",
+                        dimension, key, inMemory, inTable);
+                drift++;
+            }
+        }
+        return drift;
+    }
+
+    public record Stats(Map<String, Map<String, Long>> counts, String eventId) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.users.service.stats;
+
+import com.example.users.repository.UserRepository;
+import com.example.users.service.eventos.UserEventHub;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Recalcula os contadores a partir da tabela (carga inicial + execução periódica); divergências são reportadas
+// pelo UserStatsCounter. Não trava nada: as contagens são levadas a uma posição do outbox e o UserEventHub
+// completa a partir dela.
+@Component
+public class UserStatsReconciler {
+
+    @Autowired
+    private UserRepository repo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private UserEventHub eventHub;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private TransactionTemplate tx;
+
+    @PostConstruct
+    void init() {
+        // REPEATABLE_READ: as consultas do snapshot enxergam o mesmo snapshot. Sem readOnly de propósito: os
+        // eventos do outbox precisam estar visíveis, então lê do primário, não da réplica
+        tx = new TransactionTemplate(txManager);
+        tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    // primeira execução logo após a subida (carga inicial)
+    @Scheduled(fixedDelayString = "${app.users.stats.reconcile-interval:PT10M}")
+    public synchronized void reconcile() {
+        var snapshot = tx.execute(status -> snapshot());
+        // fora da transação: o hub lê eventos commitados depois do snapshot
+        eventHub.installStats(snapshot.counts(), snapshot.horizon());
+    }
+
+    // Contagens da tabela só com as transações abaixo do xmin do snapshot (horizon), todas já terminadas:
+    // as que commitaram entre o xmin e o snapshot estão na tabela, então a variação dos seus eventos (visíveis no
+    // mesmo snapshot) é descontada. Sobra o estado exato depois do último evento com tx_id < horizon.
+    private Snapshot snapshot() {
+        long horizon = Long.parseLong(jdbc.queryForObject(
+                "SELECT pg_snapshot_xmin(pg_current_snapshot())::text", String.class));
+
+        var jobTitle = new HashMap<String, Long>();
+        repo.countByJobTitle().forEach(r -> jobTitle.put((String) r[0], (Long) r[1]));
+
+        var systemRole = new HashMap<String, Long>();
+        repo.countBySystemRole().forEach(r -> systemRole.put(String.valueOf(r[0]), (Long) r[1]));
+
+        var active = new HashMap<String, Long>();
+        repo.countByActive().forEach(r -> active.put((Boolean) r[0] ? "active" : "inactive", (Long) r[1]));
+
+        var counts = new HashMap<String, Map<String, Long>>(Map.of(
+                "byJobTitle", jobTitle, "bySystemRole", systemRole, "byActive", active));
+        jdbc.queryForList("SELECT payload FROM users_outbox WHERE tx_id >= ?::xid8", String.class, Long.toString(horizon))
+                .forEach(payload -> eventHub.stats(payload).forEach((dimension, values) ->
+                        UserStatsCounter.add(counts.computeIfAbsent(dimension, k -> new HashMap<>()), values, -1)));
+
+        return new Snapshot(counts, horizon);
+    }
+
+    private record Snapshot(Map<String, Map<String, Long>> counts, long horizon) {
+    }
+}
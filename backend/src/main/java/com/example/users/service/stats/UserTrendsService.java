@@ -0,0 +1,109 @@
+package com.example.users.service.stats;
+
+import com.example.users.dto.UserTrendsDto;
+import com.example.users.model.SystemRole;
+import com.example.users.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Tendências para o dashboard lidas só dos agregados (users_rollup_hourly/daily): o custo depende do número
+// de buckets e combinações no intervalo, não do tamanho de users.
+@Service
+public class UserTrendsService {
+
+    private static final Map<String, String> GROUP_COLUMNS = Map.of(
+            "systemRole", "system_role",
+            "jobTitle", "NULLIF(job_title, '')",
+            "active", "active::text"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private UserRepository repo;
+
+    // 2000 buckets: ~83 dias por hora, ~5 anos por dia
+    @Value("${app.users.rollups.max-buckets:2000}")
+    private int maxBuckets;
+
+    @Transactional(readOnly = true)
+    public UserTrendsDto trends(String granularity, String from, String to, String groupBy,
+                                SystemRole systemRole, String jobTitle, Boolean active) {
+        var unit = unit(granularity);
+        var table = unit == ChronoUnit.HOURS ? "users_rollup_hourly" : "users_rollup_daily";
+
+        String groupColumn = "NULL";
+        if (groupBy != null && !groupBy.isBlank()) {
+            groupColumn = GROUP_COLUMNS.get(groupBy);
+            if (groupColumn == null) throw new IllegalArgumentException("groupBy deve ser systemRole, jobTitle ou active.");
+        }
+
+        // sem to: até o bucket atual (inclusive); sem from: os últimos 30 dias ou 48 horas
+        var end = to == null || to.isBlank() ? repo.currentTimestamp() : parse("to", to);
+        var endBucket = end.truncatedTo(unit);
+        if (to == null || to.isBlank() || !endBucket.equals(end)) endBucket = endBucket.plus(1, unit);
+        var startBucket = from == null || from.isBlank()
+                ? endBucket.minus(unit == ChronoUnit.HOURS ? Duration.ofHours(48) : Duration.ofDays(30))
+                : parse("from", from).truncatedTo(unit);
+
+        if (!startBucket.isBefore(endBucket)) throw new IllegalArgumentException("from deve ser anterior a to.");
+        long buckets = unit.between(startBucket, endBucket);
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Intervalo com " + buckets + " buckets; o máximo é " + maxBuckets
+                    + (unit == ChronoUnit.HOURS ? " (use granularity=day para intervalos maiores)." : "."));
+        }
+
+        var sql = new StringBuilder("SELECT bucket, ").append(groupColumn).append(" AS grp, ")
+                .append("sum(signups), sum(activations), sum(deactivations), sum(deletions) FROM ").append(table)
+                .append(" WHERE bucket >= ? AND bucket < ?");
+        var args = new ArrayList<Object>(List.of(startBucket, endBucket));
+        if (systemRole != null) {
+            sql.append(" AND system_role = ?");
+            args.add(systemRole.name());
+        }
+        if (jobTitle != null && !jobTitle.isBlank()) {
+            sql.append(" AND lower(job_title) = lower(?)");
+            args.add(jobTitle.trim());
+        }
+        if (active != null) {
+            sql.append(" AND active = ?");
+            args.add(active);
+        }
+        sql.append(" GROUP BY 1, 2 ORDER BY 1, 2");
+
+        var points = jdbc.query(sql.toString(), (rs, i) -> new UserTrendsDto.Point(
+                rs.getObject(1, LocalDateTime.class), rs.getString(2),
+                rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6)), args.toArray());
+
+        return new UserTrendsDto(unit == ChronoUnit.HOURS ? "hour" : "day", startBucket, endBucket,
+                groupColumn.equals("NULL") ? null : groupBy, points);
+    }
+
+    private static ChronoUnit unit(String granularity) {
+        if (granularity == null || granularity.isBlank() || granularity.equals("day")) return ChronoUnit.DAYS;
+        if (granularity.equals("hour")) return ChronoUnit.HOURS;
+        throw new IllegalArgumentException("granularity deve ser hour ou day.");
+    }
+
+    // data (2025-01-31) ou data e hora (2025-01-31T14:00), em UTC
+    private static LocalDateTime parse(String name, String value) {
+        try {
+            return value.contains("T") ? LocalDateTime.parse(value.trim()) : LocalDate.parse(value.trim()).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " inválido (use 2025-01-31 ou 2025-01-31T14:00).");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.users.service.validacoes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tempo de cada validador (users.validator, tags chain/validator), inclusive quando a validação falha
+@Component
+public class ValidadorTimers {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+    public void medir(String chain, Object validador, Runnable validacao) {
+        timers.computeIfAbsent(validador.getClass(), type -> Timer.builder("users.validator")
+                .description("Tempo de execução de cada validador")
+                .tag("chain", chain)
+                .tag("validator", ClassUtils.getUserClass(type).getSimpleName())
+                .publishPercentileHistogram()
+                .register(registry)
+        ).record(validacao);
+    }
+}
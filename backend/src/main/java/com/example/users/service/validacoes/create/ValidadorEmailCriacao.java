@@ -3,6 +3,7 @@ package com.example.users.service.validacoes.create;
 
 import com.example.users.dto.UserDto;
 import com.example.users.repository.UserRepository;
+import com.example.users.service.cache.UserEmailIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -12,13 +13,17 @@ public class ValidadorEmailCriacao implements ValidadorCriacaoUsuario {
     @Autowired
     private UserRepository repo;
 
+    @Autowired
+    private UserEmailIndex emailIndex;
+
     @Override
     public void validar(UserDto dto) {
         var email = dto.getEmail();
         if (email == null || email.isBlank()) {
             throw new IllegalArgumentException("Email é obrigatório.");
         }
-        if (repo.existsByEmailIgnoreCase(email)) {
+        // só vai ao banco se o índice em memória não garantir que o e-mail está livre
+        if (emailIndex.mightContain(email) && repo.existsByEmailIgnoreCase(email)) {
             throw new IllegalArgumentException("Email já cadastrado");
         }
     }
@@ -1,9 +1,8 @@
 package com.example.users.service.validacoes.patch;
 
-import com.example.users.model.User;
-
 import java.util.Map;
 
+// O PATCH é aplicado em um único UPDATE, sem carregar a entidade antes: validadores recebem só o body
 public interface ValidadorPatchUsuario {
-    void validar(Long id, Map<String, Object> updates, User existing);
+    void validar(Long id, Map<String, Object> updates);
 }
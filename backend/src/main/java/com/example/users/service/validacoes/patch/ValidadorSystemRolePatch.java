@@ -2,7 +2,6 @@ package com.example.users.service.validacoes.patch;
 
 import com.example.users.exception.ValidacaoException;
 import com.example.users.model.SystemRole;
-import com.example.users.model.User;
 
 import org.springframework.stereotype.Component;
 
@@ -12,7 +11,7 @@ import java.util.Map;
 public class ValidadorSystemRolePatch implements ValidadorPatchUsuario {
 
     @Override
-    public void validar(Long id, Map<String, Object> updates, User existing) {
+    public void validar(Long id, Map<String, Object> updates) {
         if (!updates.containsKey("systemRole") || updates.get("systemRole") == null) return;
 
         try {
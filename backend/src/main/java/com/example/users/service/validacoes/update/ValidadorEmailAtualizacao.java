@@ -4,6 +4,7 @@ import com.example.users.dto.UserDto;
 import com.example.users.exception.ValidacaoException;
 import com.example.users.model.User;
 import com.example.users.repository.UserRepository;
+import com.example.users.service.cache.UserEmailIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -13,6 +14,9 @@ public class ValidadorEmailAtualizacao implements ValidadorAtualizacaoUsuario {
     @Autowired
     private UserRepository repo;
 
+    @Autowired
+    private UserEmailIndex emailIndex;
+
     @Override
     public void validar(Long id, UserDto dto, User existing) {
         String newEmail = dto.getEmail();
@@ -27,7 +31,7 @@ public class ValidadorEmailAtualizacao implements ValidadorAtualizacaoUsuario {
             throw new ValidacaoException("Email é obrigatório.");
         }
 
-        if (repo.existsByEmailIgnoreCase(newEmail)) {
+        if (emailIndex.mightContain(newEmail) && repo.existsByEmailIgnoreCase(newEmail)) {
             throw new ValidacaoException("Email já cadastrado.");
         }
     }
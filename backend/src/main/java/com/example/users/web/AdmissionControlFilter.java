@@ -0,0 +1,238 @@
+package com.example.users.web;
+
+import com.example.users.exception.AdmissaoRecusadaException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Controle de admissão na frente do UserController, antes de qualquer conexão do pool:
+// 1) limite de taxa por cliente (IP; atrás do nginx vem do X-Forwarded-For) -> 429 com Retry-After;
+// 2) bulkhead por classe de endpoint, para leituras pesadas não tomarem o pool das escritas e vice-versa;
+//    quem espera na fila mais que max-queue-wait recebe 503 com Retry-After.
+// O SSE (/events) fica de fora: a conexão é longa e não segura conexão do banco.
+// enabled é lido em tempo de execução (e não por condição do bean) para valer também no build AOT.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    enum EndpointClass { READ, WRITE, AGGREGATE, STREAM, IMPORT }
+
+    private static final String BASE = "/api/users";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD");
+
+    // POST que só lê (o corpo leva a lista de ids)
+    private static final Set<String> READ_POSTS = Set.of(BASE + "/batch-get");
+
+    // /stats lê contadores em memória: fica em READ
+    private static final Set<String> AGGREGATE_PATHS = Set.of(BASE);
+
+    // seguram a vaga até o fim da resposta assíncrona (minutos, em exportações grandes): bulkhead próprio,
+    // para não deixar a listagem completa sem vaga
+    private static final Set<String> STREAM_PATHS = Set.of(BASE + "/export", BASE + "/stream");
+
+    // importação é síncrona e pode levar minutos: bulkhead próprio, para não tirar vaga das escritas do dia a dia
+    private static final Set<String> IMPORT_PATHS = Set.of(BASE + "/import");
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver exceptionResolver;
+
+    @Value("${app.users.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.users.admission.rate-per-second:20}")
+    private double ratePerSecond;
+
+    @Value("${app.users.admission.burst:40}")
+    private int burst;
+
+    @Value("${app.users.admission.read-concurrency:4}")
+    private int readConcurrency;
+
+    @Value("${app.users.admission.write-concurrency:3}")
+    private int writeConcurrency;
+
+    @Value("${app.users.admission.aggregate-concurrency:2}")
+    private int aggregateConcurrency;
+
+    @Value("${app.users.admission.stream-concurrency:2}")
+    private int streamConcurrency;
+
+    @Value("${app.users.admission.import-concurrency:1}")
+    private int importConcurrency;
+
+    @Value("${app.users.admission.max-queue-wait:500ms}")
+    private Duration maxQueueWait;
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    private final Map<EndpointClass, Timer> waitTimers = new EnumMap<>(EndpointClass.class);
+
+    // clientes sem requisição há 10 min saem do mapa (e voltam com o balde cheio)
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+
+    @PostConstruct
+    void init() {
+        bulkheads.put(EndpointClass.READ, new Bulkhead(readConcurrency));
+        bulkheads.put(EndpointClass.WRITE, new Bulkhead(writeConcurrency));
+        bulkheads.put(EndpointClass.AGGREGATE, new Bulkhead(aggregateConcurrency));
+        bulkheads.put(EndpointClass.STREAM, new Bulkhead(streamConcurrency));
+        bulkheads.put(EndpointClass.IMPORT, new Bulkhead(importConcurrency));
+
+        bulkheads.forEach((endpointClass, bulkhead) -> {
+            String tag = tag(endpointClass);
+            Gauge.builder("users.admission.queue", bulkhead, Bulkhead::waiting)
+                    .description("Requisições aguardando vaga no bulkhead")
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("users.admission.active", bulkhead, Bulkhead::active)
+                    .description("Requisições em execução no bulkhead")
+                    .tag("class", tag)
+                    .register(registry);
+            waitTimers.put(endpointClass, Timer.builder("users.admission.wait")
+                    .description("Espera por vaga no bulkhead (inclui as recusadas)")
+                    .tag("class", tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        });
+        Gauge.builder("users.admission.clients", buckets, Cache::estimatedSize)
+                .description("Clientes com balde de fichas ativo")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) return true;
+        String path = request.getRequestURI();
+        return !(path.equals(BASE) || path.startsWith(BASE + "/"))
+                || path.equals(BASE + "/events")
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var endpointClass = classify(request);
+
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(request.getRemoteAddr(), k -> new TokenBucket(ratePerSecond, burst, now)).tryConsume(now);
+        if (waitNanos > 0) {
+            reject(request, response, endpointClass, new AdmissaoRecusadaException(true, toRetryAfter(waitNanos)));
+            return;
+        }
+
+        var bulkhead = bulkheads.get(endpointClass);
+        boolean admitted;
+        long start = System.nanoTime();
+        try {
+            admitted = bulkhead.tryEnter(maxQueueWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        } finally {
+            waitTimers.get(endpointClass).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!admitted) {
+            reject(request, response, endpointClass, new AdmissaoRecusadaException(false, toRetryAfter(maxQueueWait.toNanos())));
+            return;
+        }
+
+        var released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) bulkhead.exit();
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // /stream e /export continuam em outra thread: a vaga só volta quando a resposta assíncrona termina
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private static EndpointClass classify(HttpServletRequest request) {
+        if (READ_POSTS.contains(request.getRequestURI())) return EndpointClass.READ;
+        if (IMPORT_PATHS.contains(request.getRequestURI())) return EndpointClass.IMPORT;
+        if (!SAFE_METHODS.contains(request.getMethod())) return EndpointClass.WRITE;
+        if (STREAM_PATHS.contains(request.getRequestURI())) return EndpointClass.STREAM;
+        return AGGREGATE_PATHS.contains(request.getRequestURI()) ? EndpointClass.AGGREGATE : EndpointClass.READ;
+    }
+
+    // a resposta sai pelo GlobalExceptionHandler (mesmo corpo e contador users.errors dos demais erros)
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointClass endpointClass,
+                        AdmissaoRecusadaException ex) throws IOException {
+        registry.counter("users.admission.rejected",
+                "class", tag(endpointClass),
+                "reason", ex.isRateLimited() ? "rate_limit" : "queue_timeout").increment();
+
+        if (exceptionResolver.resolveException(request, response, null, ex) == null && !response.isCommitted()) {
+            // Accept sem JSON (ex.: text/csv no /export): só o status e o Retry-After
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+            response.sendError(ex.isRateLimited() ? 429 : 503, ex.getMessage());
+        }
+    }
+
+    private static long toRetryAfter(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999));
+    }
+
+    private static String tag(EndpointClass endpointClass) {
+        return endpointClass.name().toLowerCase();
+    }
+
+    private record ReleaseOnComplete(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.users.web;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Limite de requisições simultâneas de uma classe de endpoint; quem passa do limite espera na fila até maxWait
+final class Bulkhead {
+
+    private final int limit;
+
+    private final Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    Bulkhead(int limit) {
+        this.limit = limit;
+        this.permits = new Semaphore(limit, true);
+    }
+
+    boolean tryEnter(Duration maxWait) throws InterruptedException {
+        if (permits.tryAcquire()) return true;
+
+        waiting.incrementAndGet();
+        try {
+            return permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    void exit() {
+        permits.release();
+    }
+
+    int waiting() {
+        return waiting.get();
+    }
+
+    int active() {
+        return limit - permits.availablePermits();
+    }
+}
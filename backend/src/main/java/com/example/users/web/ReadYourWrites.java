@@ -0,0 +1,38 @@
+package com.example.users.web;
+
+import java.util.function.Supplier;
+
+// Marca a requisição de um cliente que escreveu há pouco: as transações somente leitura dela vão para o primário,
+// que já tem a própria escrita (a réplica pode estar atrasada). Definido pelo ReadYourWritesFilter.
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void set(boolean primary) {
+        if (primary) PRIMARY.set(Boolean.TRUE);
+        else PRIMARY.remove();
+    }
+
+    static void clear() {
+        PRIMARY.remove();
+    }
+
+    public static boolean isActive() {
+        return PRIMARY.get() != null;
+    }
+
+    // Leituras que precisam do primário mesmo em transação somente leitura (ex.: comparadas com o carimbo da tabela,
+    // que só vale no primário). A conexão é obtida na primeira instrução, então basta abrir a transação antes.
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (isActive()) return action.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PRIMARY.remove();
+        }
+    }
+}
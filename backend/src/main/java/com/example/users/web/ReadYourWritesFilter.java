@@ -0,0 +1,69 @@
+package com.example.users.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+// Janela de "ler a própria escrita": toda requisição de escrita grava um cookie com o instante até quando
+// as leituras desse cliente vão para o primário. O estado fica no cliente, então vale com várias instâncias.
+// Leituras em thread assíncrona (/stream, /export) não veem a marca e podem ir para a réplica.
+@Component
+@ConditionalOnExpression("!'${app.users.datasource.replicas:}'.isBlank()")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String COOKIE = "users-rw";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    // POST que só lê: não abre a janela de leitura no primário
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/api/users/batch-get");
+
+    @Value("${app.users.datasource.read-your-writes-window:PT5S}")
+    private Duration window;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        ReadYourWrites.set(primaryUntil(request) > now);
+
+        // antes da cadeia: depois dela a resposta pode já ter sido enviada
+        if (!SAFE_METHODS.contains(request.getMethod()) && !READ_ONLY_POSTS.contains(request.getRequestURI())) {
+            var cookie = new Cookie(COOKIE, Long.toString(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setHttpOnly(true);
+            cookie.setAttribute("SameSite", "Lax");
+            response.addCookie(cookie);
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) return 0;
+        for (var cookie : request.getCookies()) {
+            if (!COOKIE.equals(cookie.getName())) continue;
+            try {
+                return Long.parseLong(cookie.getValue());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
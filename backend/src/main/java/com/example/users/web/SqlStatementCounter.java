@@ -0,0 +1,37 @@
+package com.example.users.web;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+// Conta as instruções SQL executadas na thread da requisição (JPA, JdbcTemplate e Flyway passam pelo mesmo DataSource).
+// Fora de uma requisição (jobs agendados, listeners após o commit em outra thread) nada é contado.
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            // batch conta cada linha do lote; instrução simples conta 1
+            count[0] += execInfo.isBatch() ? Math.max(1, execInfo.getBatchSize()) : queryInfoList.size();
+        }
+    }
+}
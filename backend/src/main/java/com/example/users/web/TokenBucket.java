@@ -0,0 +1,32 @@
+package com.example.users.web;
+
+// Balde de fichas de um cliente: enche a ratePerSecond até burst; cada requisição consome uma ficha.
+// O instante é passado por quem chama (System.nanoTime) para o teste controlar o relógio.
+final class TokenBucket {
+
+    private final double tokensPerNano;
+
+    private final double capacity;
+
+    private double tokens;
+
+    private long last;
+
+    TokenBucket(double ratePerSecond, int burst, long now) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.last = now;
+    }
+
+    // 0 quando consumiu uma ficha; senão, os nanossegundos até a próxima ficha
+    synchronized long tryConsume(long now) {
+        tokens = Math.min(capacity, tokens + (now - last) * tokensPerNano);
+        last = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
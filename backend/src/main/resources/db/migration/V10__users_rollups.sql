@@ -0,0 +1,29 @@
+-- Tendências (GET /api/users/stats/trends): contagem de eventos por hora e por dia (UTC), por
+-- system_role, job_title e active. Cadastros e remoções contam no estado do usuário naquele momento;
+-- ativações/desativações no estado depois da mudança. Atualizadas na mesma transação de cada escrita
+-- (UserRollupWriter); cadastros anteriores a tracking_since vêm do backfill (UserRollupBackfill).
+CREATE TABLE IF NOT EXISTS users_rollup_hourly (
+  bucket TIMESTAMP NOT NULL,
+  system_role VARCHAR(20) NOT NULL,
+  job_title VARCHAR(80) NOT NULL,
+  active BOOLEAN NOT NULL,
+  signups BIGINT NOT NULL DEFAULT 0,
+  activations BIGINT NOT NULL DEFAULT 0,
+  deactivations BIGINT NOT NULL DEFAULT 0,
+  deletions BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (bucket, system_role, job_title, active)
+);
+
+CREATE TABLE IF NOT EXISTS users_rollup_daily (LIKE users_rollup_hourly INCLUDING ALL);
+
+-- Uma linha: a partir de tracking_since os agregados são incrementais; antes disso o backfill percorre
+-- users em faixas de id (backfill_cursor = último id processado) até backfill_done_at
+CREATE TABLE IF NOT EXISTS users_rollup_state (
+  id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+  tracking_since TIMESTAMP NOT NULL,
+  backfill_cursor BIGINT NOT NULL DEFAULT 0,
+  backfill_done_at TIMESTAMP
+);
+
+INSERT INTO users_rollup_state (tracking_since) VALUES (clock_timestamp() AT TIME ZONE 'UTC')
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,4 @@
+-- A busca por name/email é sempre "contém" (LIKE '%x%'): os btree de prefixo do V5 não atendem nenhuma consulta
+-- e só encarecem as escritas. Termos curtos (< 3 caracteres) exigem outro filtro (ver UserService)
+DROP INDEX IF EXISTS ix_users_name_prefix;
+DROP INDEX IF EXISTS ix_users_email_prefix;
@@ -0,0 +1,10 @@
+-- Busca "contém" (LIKE '%x%') em name/email não usa btree; pg_trgm + GIN atende o curinga à esquerda
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_users_name_trgm ON users USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_users_email_trgm ON users USING gin (LOWER(email) gin_trgm_ops);
+
+-- Termos curtos (< 3 caracteres) não geram trigramas úteis: a aplicação busca por prefixo (LIKE 'x%'),
+-- atendido por btree com text_pattern_ops (independe da collation do banco)
+CREATE INDEX IF NOT EXISTS ix_users_name_prefix ON users (LOWER(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS ix_users_email_prefix ON users (LOWER(email) text_pattern_ops);
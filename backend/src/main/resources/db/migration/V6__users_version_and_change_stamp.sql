@@ -0,0 +1,7 @@
+-- Versão por usuário (JPA @Version): base do ETag de GET /api/users/{id}
+ALTER TABLE users
+  ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Carimbo de alteração da tabela: avançado pela aplicação após cada commit de escrita.
+-- Sequência (e não uma linha de contador) para não serializar as escritas concorrentes.
+CREATE SEQUENCE IF NOT EXISTS users_change_seq;
@@ -0,0 +1,9 @@
+-- Índices para as combinações de filtros mais comuns da busca (o SQL só leva os filtros informados).
+-- O id no fim permite a paginação por cursor (WHERE ... AND id > ? ORDER BY id) direto no índice.
+CREATE INDEX IF NOT EXISTS ix_users_system_role_active ON users (system_role, active, id);
+
+-- ix_users_role (V1) foi criado em "role", hoje job_title, sem LOWER: a busca compara LOWER(job_title) e não o usava
+DROP INDEX IF EXISTS ix_users_role;
+CREATE INDEX IF NOT EXISTS ix_users_job_title_ci_active ON users (LOWER(job_title), active, id);
+
+ANALYZE users;
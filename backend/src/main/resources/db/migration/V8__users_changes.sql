@@ -0,0 +1,40 @@
+-- Sincronização incremental (GET /api/users/changes): updated_at mantido pelo banco em toda escrita
+-- (JPA, PATCH em SQL, operações em lote, importação) e tombstones para as remoções.
+
+-- clock_timestamp() e não now(): o instante da escrita, não o início da transação; em UTC para não depender
+-- do fuso da sessão. O token da API usa o mesmo relógio.
+CREATE OR REPLACE FUNCTION users_touch_updated_at() RETURNS trigger AS $$
+BEGIN
+  NEW.updated_at := clock_timestamp() AT TIME ZONE 'UTC';
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_touch_updated_at
+  BEFORE INSERT OR UPDATE ON users
+  FOR EACH ROW EXECUTE FUNCTION users_touch_updated_at();
+
+CREATE INDEX IF NOT EXISTS ix_users_updated_at ON users (updated_at, id);
+
+-- Um registro por id removido (ids vêm de BIGSERIAL e não são reutilizados); expurgado após a retenção
+CREATE TABLE IF NOT EXISTS users_tombstones (
+  id BIGINT PRIMARY KEY,
+  deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_users_tombstones_deleted_at ON users_tombstones (deleted_at);
+
+-- por instrução (tabela de transição): o DELETE em lote grava todos os tombstones em um único INSERT
+CREATE OR REPLACE FUNCTION users_record_tombstones() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO users_tombstones (id, deleted_at)
+  SELECT id, clock_timestamp() AT TIME ZONE 'UTC' FROM removed
+  ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_tombstones
+  AFTER DELETE ON users
+  REFERENCING OLD TABLE AS removed
+  FOR EACH STATEMENT EXECUTE FUNCTION users_record_tombstones();
@@ -0,0 +1,14 @@
+-- Outbox transacional: cada escrita em users grava aqui, na mesma transação, o evento enviado por SSE
+-- (GET /api/users/events). tx_id é a transação que gravou a linha: o leitor só avança sobre transações
+-- abaixo de pg_snapshot_xmin (todas já terminadas), em ordem (tx_id, id), então nenhuma linha que
+-- commite depois fica para trás do cursor. Essa ordem é a de início das transações, não a de commit: os
+-- eventos de um mesmo usuário podem chegar fora de ordem e o cliente compara version.
+CREATE TABLE IF NOT EXISTS users_outbox (
+  id BIGSERIAL PRIMARY KEY,
+  tx_id XID8 NOT NULL DEFAULT pg_current_xact_id(),
+  payload TEXT NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS ix_users_outbox_tx_id ON users_outbox (tx_id, id);
+CREATE INDEX IF NOT EXISTS ix_users_outbox_created_at ON users_outbox (created_at);
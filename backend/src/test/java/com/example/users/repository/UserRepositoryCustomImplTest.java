@@ -0,0 +1,55 @@
+package com.example.users.repository;
+
+import com.example.users.model.SystemRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRepositoryCustomImplTest {
+
+    @Test
+    void noCriteriaMeansNoWhere() {
+        var params = new MapSqlParameterSource();
+
+        var where = UserRepositoryCustomImpl.where(new UserCriteria(null, null, null, null, null), params);
+
+        assertEquals("", where.toString());
+        assertEquals(0, params.getParameterNames().length);
+    }
+
+    @Test
+    void onlySuppliedFiltersBecomePredicates() {
+        var params = new MapSqlParameterSource();
+
+        var where = UserRepositoryCustomImpl.where(new UserCriteria(null, "%@gmail%", null, SystemRole.ADMIN, null), params);
+
+        assertEquals(" WHERE LOWER(email) LIKE :emailLike AND system_role = :systemRole", where.toString());
+        assertEquals(Set.of("emailLike", "systemRole"), Set.of(params.getParameterNames()));
+        assertEquals("ADMIN", params.getValue("systemRole"));
+    }
+
+    @Test
+    void allFiltersInFixedOrder() {
+        var params = new MapSqlParameterSource();
+
+        var where = UserRepositoryCustomImpl.where(
+                new UserCriteria("%ana%", "%@x%", "dev", SystemRole.USER, false), params);
+
+        assertEquals(" WHERE LOWER(name) LIKE :nameLike AND LOWER(email) LIKE :emailLike"
+                + " AND LOWER(job_title) = :jobTitleLower AND system_role = :systemRole AND active = :active", where.toString());
+        assertEquals(false, params.getValue("active"));
+        assertEquals("%ana%", params.getValue("nameLike"));
+    }
+
+    @Test
+    void activeAloneIsAFilterButNotAnAttributeFilter() {
+        var criteria = new UserCriteria(null, null, null, null, true);
+
+        assertEquals(" WHERE active = :active", UserRepositoryCustomImpl.where(criteria, new MapSqlParameterSource()).toString());
+        assertFalse(criteria.isEmpty());
+        assertFalse(criteria.hasAttributeFilter());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.users.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void addsContainsAndRemoves() {
+        var set = new LongHashSet(4);
+        set.add(42);
+        set.add(42);
+        set.add(-7);
+
+        assertEquals(2, set.size());
+        assertTrue(set.contains(42));
+        assertTrue(set.contains(-7));
+        assertFalse(set.contains(43));
+
+        set.remove(42);
+        set.remove(1000);
+        assertFalse(set.contains(42));
+        assertTrue(set.contains(-7));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void zeroIsStoredAsOne() {
+        var set = new LongHashSet(4);
+        set.add(0);
+
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(1));
+    }
+
+    // inserções e remoções misturadas, com crescimento da tabela: as remoções não podem esconder quem ficou
+    @Test
+    void matchesHashSetUnderRandomAddsAndRemoves() {
+        var random = new Random(7);
+        var set = new LongHashSet(16);
+        var expected = new HashSet<Long>();
+
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(5_000) + 1;
+            if (random.nextInt(3) == 0) {
+                set.remove(value);
+                expected.remove(value);
+            } else {
+                set.add(value);
+                expected.add(value);
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value = 1; value <= 5_000; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "valor " + value);
+        }
+    }
+}
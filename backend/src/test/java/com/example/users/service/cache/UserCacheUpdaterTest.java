@@ -0,0 +1,53 @@
+package com.example.users.service.cache;
+
+import com.example.users.config.CacheConfig;
+import com.example.users.dto.UserDto;
+import com.example.users.event.UserChangedEvent;
+import com.example.users.model.SystemRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheUpdaterTest {
+
+    private UserCacheUpdater updater;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        var manager = new CacheConfig().cacheManager(100, Duration.ofMinutes(5));
+        cache = manager.getCache(CacheConfig.USERS_CACHE);
+
+        updater = new UserCacheUpdater();
+        ReflectionTestUtils.setField(updater, "cacheManager", manager);
+    }
+
+    private static UserDto user(long version, String jobTitle) {
+        return new UserDto(1L, "Ana", "ana@example.com", jobTitle, SystemRole.USER, true, version);
+    }
+
+    @Test
+    void olderCommitArrivingLateDoesNotOverwriteNewerVersion() {
+        cache.put(1L, user(1, "Dev"));
+
+        updater.onUserChanged(UserChangedEvent.updated(user(2, "QA"), user(3, "Ops")));
+        updater.onUserChanged(UserChangedEvent.updated(user(1, "Dev"), user(2, "QA")));
+
+        assertEquals(3L, cache.get(1L, UserDto.class).getVersion());
+        assertEquals("Ops", cache.get(1L, UserDto.class).getJobTitle());
+    }
+
+    @Test
+    void updateDoesNotRecreateAbsentEntry() {
+        updater.onUserChanged(UserChangedEvent.deleted(user(2, "QA")));
+        updater.onUserChanged(UserChangedEvent.updated(user(1, "Dev"), user(2, "QA")));
+
+        assertNull(cache.get(1L));
+    }
+}
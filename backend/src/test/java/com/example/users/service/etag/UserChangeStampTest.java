@@ -0,0 +1,62 @@
+package com.example.users.service.etag;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserChangeStampTest {
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbc;
+
+    private UserChangeStamp stamp;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void freshSequence() {
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("DROP SEQUENCE IF EXISTS users_change_seq");
+        jdbc.execute("CREATE SEQUENCE users_change_seq");
+
+        stamp = new UserChangeStamp();
+        ReflectionTestUtils.setField(stamp, "jdbc", jdbc);
+    }
+
+    @Test
+    void firstWriteAfterMigrationChangesStamp() {
+        long beforeFirstWrite = stamp.current();
+
+        stamp.onUserChanged();
+
+        assertNotEquals(beforeFirstWrite, stamp.current());
+    }
+
+    @Test
+    void everyWriteAdvancesStamp() {
+        var seen = new HashSet<Long>();
+        seen.add(stamp.current());
+        for (int i = 0; i < 3; i++) {
+            stamp.onUserChanged();
+            assertTrue(seen.add(stamp.current()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.users.service.importacao;
+
+import com.example.users.model.SystemRole;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCsvReaderTest {
+
+	private List<ImportRow> read(String csv) {
+		var rows = new ArrayList<ImportRow>();
+		new UserCsvReader(new StringReader(csv)).forEachRemaining(rows::add);
+		return rows;
+	}
+
+	@Test
+	void readsQuotedFieldsAndSkipsBlankLines() {
+		var rows = read("""
+				name,email,jobTitle,systemRole,active
+				"Silva, Ana",ana@example.com,DESENVOLVEDOR,admin,false
+
+				"Joao ""JP"" Pereira",joao@example.com,"ANALISTA
+				SENIOR",USER,
+				""");
+
+		assertEquals(2, rows.size());
+
+		var ana = rows.get(0).user();
+		assertEquals(1, rows.get(0).row());
+		assertEquals("Silva, Ana", ana.getName());
+		assertEquals(SystemRole.ADMIN, ana.getSystemRole());
+		assertFalse(ana.getActive());
+
+		var joao = rows.get(1).user();
+		assertEquals("Joao \"JP\" Pereira", joao.getName());
+		assertEquals("ANALISTA\nSENIOR", joao.getJobTitle());
+		assertNull(joao.getActive());
+	}
+
+	@Test
+	void acceptsSemicolonAndSnakeCaseHeader() {
+		var rows = read("name;email;job_title;system_role\nAna;ana@example.com;GERENTE;MANAGER\n");
+
+		assertEquals(1, rows.size());
+		assertEquals("GERENTE", rows.get(0).user().getJobTitle());
+		assertEquals(SystemRole.MANAGER, rows.get(0).user().getSystemRole());
+	}
+
+	@Test
+	void reportsInvalidSystemRoleAsRowError() {
+		var rows = read("name,email,jobTitle,systemRole\nAna,ana@example.com,GERENTE,ROOT\n");
+
+		assertNull(rows.get(0).user());
+		assertNotNull(rows.get(0).error());
+	}
+}
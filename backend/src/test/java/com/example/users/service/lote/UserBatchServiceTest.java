@@ -0,0 +1,146 @@
+package com.example.users.service.lote;
+
+import com.example.users.dto.BatchPatchItemDto;
+import com.example.users.dto.BatchPatchItemResultDto;
+import com.example.users.dto.BatchPatchResultDto;
+import com.example.users.dto.UserDto;
+import com.example.users.event.UsersBulkChangedEvent;
+import com.example.users.exception.ValidacaoException;
+import com.example.users.model.SystemRole;
+import com.example.users.repository.UserRepository;
+import com.example.users.service.validacoes.ValidadorTimers;
+import com.example.users.service.validacoes.patch.ValidadorPatchUsuario;
+import com.example.users.service.validacoes.patch.ValidadorSystemRolePatch;
+import com.example.users.service.validacoes.update.ValidadorAtualizacaoUsuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class UserBatchServiceTest {
+
+    // id 9 existe, mas o UPDATE não acha a versão lida (guarda do "AND version = ?")
+    private static final long STALE_ON_UPDATE = 9;
+
+    private final Map<Long, UserDto> table = new HashMap<>();
+
+    private final List<Object> published = new ArrayList<>();
+
+    private UserRepository repo;
+
+    private UserBatchService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        for (long id : new long[]{1, 2, 3, 4, 5, 6, STALE_ON_UPDATE}) table.put(id, user(id, "user" + id + "@x.com"));
+
+        repo = mock(UserRepository.class);
+        when(repo.lockByIds(any())).thenAnswer(inv -> ((Collection<Long>) inv.getArgument(0)).stream()
+                .filter(table::containsKey).sorted().map(table::get).toList());
+        when(repo.updateAll(anyList())).thenAnswer(inv -> ((List<UserDto>) inv.getArgument(0)).stream()
+                .mapToInt(u -> u.getId() == STALE_ON_UPDATE ? 0 : 1).toArray());
+
+        var timers = new ValidadorTimers();
+        ReflectionTestUtils.setField(timers, "registry", new SimpleMeterRegistry());
+
+        // e-mail já cadastrado por outro usuário
+        ValidadorAtualizacaoUsuario emailTaken = (id, dto, existing) -> {
+            if ("taken@x.com".equalsIgnoreCase(dto.getEmail())) throw new ValidacaoException("Email já cadastrado.");
+        };
+
+        service = new UserBatchService();
+        ReflectionTestUtils.setField(service, "repo", repo);
+        ReflectionTestUtils.setField(service, "validadoresPatch", List.<ValidadorPatchUsuario>of(new ValidadorSystemRolePatch()));
+        ReflectionTestUtils.setField(service, "validadoresAtualizacao", List.of(emailTaken));
+        ReflectionTestUtils.setField(service, "validadorTimers", timers);
+        ReflectionTestUtils.setField(service, "cacheManager", new ConcurrentMapCacheManager());
+        ReflectionTestUtils.setField(service, "events", (ApplicationEventPublisher) published::add);
+        ReflectionTestUtils.setField(service, "maxItems", 500);
+    }
+
+    private static UserDto user(long id, String email) {
+        return new UserDto(id, "User " + id, email, "Dev", SystemRole.USER, true, 3L);
+    }
+
+    private static BatchPatchItemDto item(long id, Long version, Map<String, Object> changes) {
+        return new BatchPatchItemDto(id, version, changes);
+    }
+
+    private static List<Integer> statuses(BatchPatchResultDto result) {
+        return result.getResults().stream().map(BatchPatchItemResultDto::getStatus).toList();
+    }
+
+    @Test
+    void givesEachItemTheStatusOfTheSinglePatch() {
+        var result = service.patch(List.of(
+                item(1, 3L, Map.of("active", false)),             // 200
+                item(1, null, Map.of("active", true)),            // 400: id repetido
+                item(2, null, Map.of("systemRole", "ROOT")),      // 400: validador do PATCH
+                item(7, null, Map.of("active", false)),           // 404
+                item(3, 2L, Map.of("active", false)),             // 412: versão desatualizada
+                item(4, null, Map.of("email", "taken@x.com")),    // 400: validador da atualização
+                item(5, null, Map.of("email", "same@x.com")),     // 200
+                item(6, null, Map.of("email", "SAME@x.com")),     // 409: e-mail repetido no lote
+                item(STALE_ON_UPDATE, null, Map.of("name", "Outro Nome")) // 409: UPDATE não achou a versão
+        ));
+
+        assertEquals(List.of(200, 400, 400, 404, 412, 400, 200, 409, 409), statuses(result));
+        assertEquals(2, result.getUpdated());
+        assertEquals(7, result.getFailed());
+
+        var first = result.getResults().get(0);
+        assertFalse(first.getUser().getActive());
+        assertEquals(4L, first.getUser().getVersion());
+        assertNull(result.getResults().get(3).getUser());
+        assertNotNull(result.getResults().get(3).getError());
+    }
+
+    @Test
+    void writesValidItemsInOneBatchAndPublishesOneEvent() {
+        service.patch(List.of(
+                item(1, null, Map.of("active", false)),
+                item(7, null, Map.of("active", false)),
+                item(2, null, Map.of("jobTitle", "QA"))
+        ));
+
+        verify(repo, times(1)).updateAll(argThat(users -> users.stream().map(UserDto::getId).toList().equals(List.of(1L, 2L))));
+        assertEquals(1, published.size());
+        var event = (UsersBulkChangedEvent) published.get(0);
+        assertEquals(2, event.changes().size());
+        assertTrue(event.changes().get(0).before().getActive());
+        assertFalse(event.changes().get(0).after().getActive());
+    }
+
+    @Test
+    void emptyChangesReturnCurrentStateWithoutWriting() {
+        var result = service.patch(List.of(item(1, 3L, Map.of())));
+
+        assertEquals(List.of(200), statuses(result));
+        assertEquals(table.get(1L), result.getResults().get(0).getUser());
+        assertEquals(0, result.getUpdated());
+        verify(repo, never()).updateAll(anyList());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void rejectsOversizedBatch() {
+        ReflectionTestUtils.setField(service, "maxItems", 2);
+        var items = List.of(item(1, null, Map.of()), item(2, null, Map.of()), item(3, null, Map.of()));
+
+        assertThrows(IllegalArgumentException.class, () -> service.patch(items));
+    }
+}
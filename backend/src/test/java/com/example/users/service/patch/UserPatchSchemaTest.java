@@ -0,0 +1,43 @@
+package com.example.users.service.patch;
+
+import com.example.users.exception.ValidacaoException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPatchSchemaTest {
+
+	@Test
+	void mapsOnlySuppliedFieldsToColumns() {
+		var updates = new HashMap<String, Object>();
+		updates.put("active", "FALSE");
+		updates.put("systemRole", " manager ");
+		updates.put("name", null);
+		updates.put("id", 99);
+
+		var columns = UserPatchSchema.toColumns(updates);
+
+		assertEquals(List.of("system_role", "active"), List.copyOf(columns.keySet()));
+		assertEquals("MANAGER", columns.get("system_role"));
+		assertEquals(false, columns.get("active"));
+	}
+
+	@Test
+	void roleOverridesJobTitle() {
+		var columns = UserPatchSchema.toColumns(Map.of("jobTitle", "ANALISTA", "role", "GERENTE"));
+
+		assertEquals("GERENTE", columns.get("job_title"));
+	}
+
+	@Test
+	void rejectsInvalidValues() {
+		assertThrows(ValidacaoException.class, () -> UserPatchSchema.toColumns(Map.of("active", "talvez")));
+		assertThrows(ValidacaoException.class, () -> UserPatchSchema.toColumns(Map.of("systemRole", "ROOT")));
+		assertThrows(ValidacaoException.class, () -> UserPatchSchema.toColumns(Map.of("email", "sem-arroba")));
+		assertThrows(ValidacaoException.class, () -> UserPatchSchema.toColumns(Map.of("name", "  ")));
+	}
+}
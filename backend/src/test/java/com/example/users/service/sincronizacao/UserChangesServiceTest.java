@@ -0,0 +1,102 @@
+package com.example.users.service.sincronizacao;
+
+import com.example.users.exception.SincronizacaoExpiradaException;
+import com.example.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserChangesServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0, 0, 123_456_000);
+
+    private UserRepository repo;
+
+    private UserChangesService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(UserRepository.class);
+        when(repo.currentTimestamp()).thenReturn(NOW);
+        when(repo.writeHorizon()).thenReturn(NOW);
+
+        service = new UserChangesService();
+        ReflectionTestUtils.setField(service, "repo", repo);
+        ReflectionTestUtils.setField(service, "overlap", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(service, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(service, "txManager", mock(PlatformTransactionManager.class));
+        service.init();
+    }
+
+    @Test
+    void tokenRoundTripKeepsMicroseconds() {
+        var time = LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_000);
+
+        var token = UserChangesService.encodeToken(time);
+
+        assertEquals(time, UserChangesService.decodeToken(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token seguro para querystring: " + token);
+    }
+
+    @Test
+    void blankTokenMeansFullSync() {
+        assertNull(UserChangesService.decodeToken(null));
+        assertNull(UserChangesService.decodeToken("  "));
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> UserChangesService.decodeToken("não é token"));
+        assertThrows(IllegalArgumentException.class, () -> UserChangesService.decodeToken("YWJj")); // "abc"
+    }
+
+    @Test
+    void firstCallReturnsEverythingAndTheCurrentClock() {
+        var result = service.changesSince(null);
+
+        verify(repo).changedSince(null);
+        verify(repo, never()).deletedSince(any());
+        assertEquals(NOW, UserChangesService.decodeToken(result.getNextToken()));
+    }
+
+    @Test
+    void nextCallReachesBackByTheOverlap() {
+        var since = NOW.minusMinutes(5);
+        when(repo.changedSince(any())).thenReturn(List.of());
+        when(repo.deletedSince(any())).thenReturn(List.of(42L));
+
+        var result = service.changesSince(UserChangesService.encodeToken(since));
+
+        verify(repo).changedSince(since.minusSeconds(30));
+        verify(repo).deletedSince(since.minusSeconds(30));
+        assertEquals(List.of(42L), result.getDeleted());
+        assertEquals(NOW, UserChangesService.decodeToken(result.getNextToken()));
+    }
+
+    // transação de escrita aberta há 10 minutos: o próximo token não passa do início dela
+    @Test
+    void nextTokenStopsAtTheOldestOpenWriteTransaction() {
+        var horizon = NOW.minusMinutes(10);
+        when(repo.writeHorizon()).thenReturn(horizon);
+
+        var result = service.changesSince(UserChangesService.encodeToken(NOW.minusMinutes(20)));
+
+        assertEquals(horizon, UserChangesService.decodeToken(result.getNextToken()));
+    }
+
+    @Test
+    void tokenOlderThanRetentionIsExpired() {
+        var token = UserChangesService.encodeToken(NOW.minusDays(8));
+
+        assertThrows(SincronizacaoExpiradaException.class, () -> service.changesSince(token));
+        verify(repo, never()).changedSince(any());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.users.service.stats;
+
+import com.example.users.dto.UserDto;
+import com.example.users.event.UserChangedEvent;
+import com.example.users.model.SystemRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRollupWriterTest {
+
+    private static UserDto user(long id, String jobTitle, SystemRole role, boolean active) {
+        return new UserDto(id, "Ana " + id, "ana" + id + "@example.com", jobTitle, role, active, 0L);
+    }
+
+    @Test
+    void countsSignupsDeletionsAndActiveTransitions() {
+        var deltas = UserRollupWriter.deltas(List.of(
+                UserChangedEvent.created(user(1, "Dev", SystemRole.USER, true)),
+                UserChangedEvent.created(user(2, "Dev", SystemRole.USER, true)),
+                UserChangedEvent.deleted(user(3, null, SystemRole.ADMIN, false)),
+                UserChangedEvent.updated(user(4, "Dev", SystemRole.USER, true), user(4, "Dev", SystemRole.USER, false)),
+                UserChangedEvent.updated(user(5, "QA", SystemRole.USER, false), user(5, "QA", SystemRole.USER, true))
+        ));
+
+        assertArrayEquals(new long[]{2, 0, 0, 0}, deltas.get(new UserRollupWriter.Key("USER", "Dev", true)));
+        assertArrayEquals(new long[]{0, 0, 1, 0}, deltas.get(new UserRollupWriter.Key("USER", "Dev", false)));
+        assertArrayEquals(new long[]{0, 1, 0, 0}, deltas.get(new UserRollupWriter.Key("USER", "QA", true)));
+        assertArrayEquals(new long[]{0, 0, 0, 1}, deltas.get(new UserRollupWriter.Key("ADMIN", "", false)));
+        assertEquals(4, deltas.size());
+    }
+
+    @Test
+    void ignoresUpdatesThatKeepActive() {
+        var deltas = UserRollupWriter.deltas(List.of(
+                UserChangedEvent.updated(user(1, "Dev", SystemRole.USER, true), user(1, "QA", SystemRole.ADMIN, true))
+        ));
+
+        assertTrue(deltas.isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.users.service.stats;
+
+import com.example.users.dto.UserDto;
+import com.example.users.event.UserChangedEvent;
+import com.example.users.model.SystemRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStatsCounterTest {
+
+    private static UserDto user(long id, String jobTitle, SystemRole role, boolean active) {
+        return new UserDto(id, "Ana " + id, "ana" + id + "@example.com", jobTitle, role, active, 0L);
+    }
+
+    private static Map<String, Map<String, Long>> table(long dev, long active, long inactive) {
+        return new HashMap<>(Map.of(
+                "byJobTitle", new HashMap<>(Map.of("Dev", dev)),
+                "bySystemRole", new HashMap<>(Map.of("USER", active + inactive)),
+                "byActive", new HashMap<>(Map.of("active", active, "inactive", inactive))));
+    }
+
+    @Test
+    void ignoresEventsBeforeTheFirstLoad() {
+        var counter = new UserStatsCounter();
+        counter.apply(UserStatsCounter.delta(List.of(UserChangedEvent.created(user(1, "Dev", SystemRole.USER, true)))), "10-1");
+
+        assertFalse(counter.isLoaded());
+        assertNull(counter.snapshot().eventId());
+    }
+
+    @Test
+    void appliesEventsOnTopOfTheReconciledCounts() {
+        var counter = new UserStatsCounter();
+        counter.replace(table(2, 2, 0), "10-1");
+        var version = counter.version();
+
+        counter.apply(UserStatsCounter.delta(List.of(
+                UserChangedEvent.updated(user(1, "Dev", SystemRole.USER, true), user(1, "Dev", SystemRole.USER, false)),
+                UserChangedEvent.deleted(user(2, "Dev", SystemRole.USER, true))
+        )), "11-2");
+
+        var stats = counter.snapshot();
+        assertEquals("11-2", stats.eventId());
+        assertEquals(Map.of("Dev", 1L), stats.counts().get("byJobTitle"));
+        assertEquals(Map.of("USER", 1L), stats.counts().get("bySystemRole"));
+        // chave zerada some, como no GROUP BY
+        assertEquals(Map.of("inactive", 1L), stats.counts().get("byActive"));
+        assertNotEquals(version, counter.version());
+    }
+
+    @Test
+    void replaceOverwritesDriftedCounts() {
+        var counter = new UserStatsCounter();
+        counter.replace(table(5, 5, 0), "10-1");
+        counter.replace(table(3, 2, 1), "10-1");
+
+        assertEquals(table(3, 2, 1), counter.snapshot().counts());
+    }
+
+    @Test
+    void snapshotIsACopy() {
+        var counter = new UserStatsCounter();
+        counter.replace(table(1, 1, 0), "10-1");
+
+        counter.snapshot().counts().get("byJobTitle").put("QA", 9L);
+
+        assertEquals(Map.of("Dev", 1L), counter.snapshot().counts().get("byJobTitle"));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.users.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenAsksToWait() {
+        var bucket = new TokenBucket(2, 3, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND / 2, bucket.tryConsume(0));
+    }
+
+    @Test
+    void refillsAtRateUpToBurst() {
+        var bucket = new TokenBucket(2, 3, 0);
+        for (int i = 0; i < 3; i++) bucket.tryConsume(0);
+
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+        assertTrue(bucket.tryConsume(SECOND / 2) > 0);
+
+        long later = 60 * SECOND;
+        for (int i = 0; i < 3; i++) assertEquals(0, bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+}
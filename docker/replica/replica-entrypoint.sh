@@ -0,0 +1,17 @@
+#!/bin/sh
+# Réplica em streaming: na primeira subida copia o primário (pg_basebackup -R grava standby.signal
+# e primary_conninfo); depois só inicia o postgres em modo hot standby
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  mkdir -p "$PGDATA"
+  chown postgres:postgres "$PGDATA"
+  chmod 700 "$PGDATA"
+  until su-exec postgres pg_basebackup -h db -U replicator -D "$PGDATA" -R -X stream -c fast; do
+    echo "aguardando o primário..."
+    rm -rf "${PGDATA:?}"/*
+    sleep 2
+  done
+fi
+
+exec su-exec postgres postgres
@@ -1,6 +1,6 @@
 // src/api/userApi.ts
 import { api } from './client'
-import { StatsResponse, User, UserFilters } from '../types'
+import { BatchPatchItem, BatchPatchResult, StatsResponse, TrendsResponse, User, UserBatch, UserEvent, UserFilters } from '../types'
 
 // BUSCA COM FILTROS COMBINADOS (endpoint novo)
 export const searchUsers = async (filters: UserFilters) => {
@@ -34,23 +34,74 @@ export const getStats = async (): Promise<StatsResponse> => {
   return r.data
 }
 
+export const getTrends = async (params: {
+  granularity?: 'hour' | 'day'
+  from?: string
+  to?: string
+  groupBy?: 'systemRole' | 'jobTitle' | 'active'
+}): Promise<TrendsResponse> => {
+  const r = await api.get<TrendsResponse>('/users/stats/trends', { params })
+  return r.data
+}
+
 export const getUser = async (id: string | number) => {
   const r = await api.get<User>(`/users/${id}`)
   return r.data
 }
 
+// vários usuários em uma requisição, na ordem dos ids (os inexistentes vêm em missing)
+export const getUsers = async (ids: number[]) => {
+  const r = await api.post<UserBatch>('/users/batch-get', { ids })
+  return r.data
+}
+
 export const createUser = async (data: Omit<User, 'id'>) => {
   const r = await api.post<User>('/users', data)
   return r.data
 }
 
-export const updateUser = async (id: string | number, data: Partial<User>) => {
-  const r = await api.put<User>(`/users/${id}`, data)
+// If-Match com a versão lida: o backend responde 412 se outra pessoa alterou o usuário nesse meio tempo
+const ifMatch = (id: string | number, version?: number) =>
+  version === undefined ? undefined : { 'If-Match': `"user-${id}-${version}"` }
+
+export const updateUser = async (id: string | number, data: Partial<User>, version?: number) => {
+  const r = await api.put<User>(`/users/${id}`, data, { headers: ifMatch(id, version) })
   return r.data
 }
 
-export const patchUser = async (id: string | number, updates: Partial<User>) => {
-  const r = await api.patch<User>(`/users/${id}`, updates)
+export const patchUser = async (id: string | number, updates: Partial<User>, version?: number) => {
+  const r = await api.patch<User>(`/users/${id}`, updates, { headers: ifMatch(id, version) })
   return r.data
 }
 
+// vários PATCHes em uma transação; version faz o papel do If-Match e cada item tem seu próprio status
+export const patchUsers = async (items: BatchPatchItem[]) => {
+  const r = await api.post<BatchPatchResult>('/users/batch-patch', { items })
+  return r.data
+}
+
+// Alterações em tempo real (SSE). O EventSource reconecta sozinho com Last-Event-ID e recebe o que perdeu;
+// onResync: o servidor não tem mais esses eventos, recarregue tudo. Retorna a função para encerrar.
+// onEvent recebe também o id do evento ("<tx_id>-<id>", ordem do outbox); onOpen roda a cada (re)conexão
+export const subscribeUserEvents = (
+  onEvent: (e: UserEvent, id: string) => void,
+  onResync: () => void,
+  onOpen?: () => void,
+) => {
+  const source = new EventSource('/api/users/events')
+  source.addEventListener('change', (e) => {
+    const message = e as MessageEvent
+    onEvent(JSON.parse(message.data), message.lastEventId)
+  })
+  source.addEventListener('resync', onResync)
+  if (onOpen) source.addEventListener('open', onOpen)
+  return () => source.close()
+}
+
+// true se o evento id vem depois de cursor (eventId de /stats); sem cursor, todo evento é novo
+export const isAfterEvent = (id: string, cursor?: string | null) => {
+  if (!cursor || !id) return true
+  const [tx, seq] = id.split('-').map(BigInt)
+  const [cursorTx, cursorSeq] = cursor.split('-').map(BigInt)
+  return tx !== cursorTx ? tx > cursorTx : seq > cursorSeq
+}
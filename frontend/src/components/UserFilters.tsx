@@ -65,6 +65,13 @@ export default function UserFilters({ onResults, onResetAll }: Props) {
   const handleSearch = async () => {
     const active = status === '' ? undefined : status === 'true'
 
+    // mesma regra da API: termo com menos de 3 caracteres só junto de cargo ou perfil
+    const isShort = (s: string) => s.trim().length > 0 && s.trim().length < 3
+    if ((isShort(name) || isShort(email)) && !jobTitle.trim() && !systemRole) {
+      alert('Nome e e-mail precisam de ao menos 3 caracteres, ou informe também cargo ou perfil.')
+      return
+    }
+
     const data = await searchUsers({
       name: name.trim() || undefined,
       email: email.trim() || undefined,
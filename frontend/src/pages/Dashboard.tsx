@@ -1,5 +1,5 @@
 import { useEffect, useMemo, useState } from 'react'
-import { StatsResponse } from '../types'
+import { StatsResponse, UserEvent } from '../types'
 import {
   PieChart,
   Pie,
@@ -12,11 +12,31 @@ import {
   YAxis,
   CartesianGrid,
 } from 'recharts'
-import { getStats } from '../api/userApi'
+import { getStats, isAfterEvent, subscribeUserEvents } from '../api/userApi'
 import '../styles/dashboard.css'
 
 const COLORS = ['#8B5CF6', '#10B981', '#ffbb28', '#ff8042', '#a66bff']
 
+// soma a variação do evento aos contadores; chaves que chegam a zero somem, como no /stats
+function addDelta(counts: Record<string, number> | undefined, delta: Record<string, number>) {
+  const result: Record<string, number> = { ...(counts ?? {}) }
+  for (const [key, d] of Object.entries(delta)) {
+    const value = Number(result[key] ?? 0) + d
+    if (value === 0) delete result[key]
+    else result[key] = value
+  }
+  return result
+}
+
+function applyStatsDelta(stats: StatsResponse, event: UserEvent): StatsResponse {
+  return {
+    ...stats,
+    byJobTitle: addDelta(stats.byJobTitle ?? stats.byRole, event.stats.byJobTitle),
+    bySystemRole: addDelta(stats.bySystemRole, event.stats.bySystemRole) as StatsResponse['bySystemRole'],
+    byActive: { active: 0, inactive: 0, ...addDelta(stats.byActive, event.stats.byActive) },
+  }
+}
+
 function useIsMobile(breakpoint = 768) {
   const [isMobile, setIsMobile] = useState(false)
 
@@ -127,12 +147,47 @@ export default function Dashboard() {
   const isMobile = useIsMobile()
 
   useEffect(() => {
-    getStats()
-      .then(setStats)
-      .catch((e) => {
-        console.error(e)
-        setError('Falha ao carregar estatísticas.')
-      })
+    // /stats traz o eventId até onde os contadores já contam: eventos que chegam durante a carga ficam em espera
+    // e, depois dela, só os posteriores ao eventId são somados (nem perdidos, nem contados duas vezes)
+    let pending: { event: UserEvent; id: string }[] | null = null
+    let cursor: string | undefined
+    let generation = 0
+
+    const load = () => {
+      const current = ++generation
+      pending = pending ?? []
+      getStats()
+        .then((loaded) => {
+          if (current !== generation) return
+          let next = loaded
+          for (const { event, id } of pending ?? []) {
+            if (isAfterEvent(id, loaded.eventId)) next = applyStatsDelta(next, event)
+          }
+          cursor = loaded.eventId
+          pending = null
+          setStats(next)
+        })
+        .catch((e) => {
+          if (current !== generation) return
+          pending = null
+          console.error(e)
+          setError('Falha ao carregar estatísticas.')
+        })
+    }
+
+    const onEvent = (event: UserEvent, id: string) => {
+      if (pending) {
+        pending.push({ event, id })
+        return
+      }
+      if (!isAfterEvent(id, cursor)) return
+      setStats((current) => (current ? applyStatsDelta(current, event) : current))
+    }
+
+    load()
+
+    // recarrega a cada (re)conexão: sem Last-Event-ID o que aconteceu com a conexão fechada não seria reenviado
+    return subscribeUserEvents(onEvent, load, load)
   }, [])
 
   const jobTitleData = useMemo(() => {
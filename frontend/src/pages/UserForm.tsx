@@ -21,6 +21,7 @@ export default function UserForm() {
   const { id } = useParams()
   const nav = useNavigate()
   const [apiError, setApiError] = useState<string | null>(null)
+  const [version, setVersion] = useState<number | undefined>(undefined)
 
   // alguns combos de versões pedem cast do resolver
   const resolver = zodResolver(schema) as unknown as Resolver<FormData>
@@ -47,6 +48,7 @@ export default function UserForm() {
         setValue('jobTitle', u.jobTitle)
         setValue('systemRole', u.systemRole)
         setValue('active', !!u.active)
+        setVersion(u.version)
       })
       .catch((e) => {
         console.error(e)
@@ -60,7 +62,7 @@ export default function UserForm() {
 
     try {
       if (id) {
-        await updateUser(id, data)
+        await updateUser(id, data, version)
       } else {
         await createUser(data)
       }
@@ -1,12 +1,15 @@
 import { useEffect, useState } from 'react'
 import { Link, useNavigate } from 'react-router-dom'
-import { User } from '../types'
-import { listAll, removeUser } from '../api/userApi'
+import { User, UserEvent } from '../types'
+import { listAll, removeUser, subscribeUserEvents } from '../api/userApi'
 import UserFilters from '../components/UserFilters'
 import UsersTable from '../components/users/UsersTable'
 import UsersCards from '../components/users/UsersCards'
 import '../styles/user.css'
 
+const isNewer = (incoming: User, current: User) =>
+  incoming.version == null || current.version == null || incoming.version > current.version
+
 export default function UsersList() {
   const [users, setUsers] = useState<User[]>([])
   const nav = useNavigate()
@@ -16,8 +19,22 @@ export default function UsersList() {
     setUsers(data)
   }
 
+  // alterações de outros usuários: atualiza/remove as linhas exibidas; criados só entram ao recarregar
+  // (a lista pode estar filtrada). Os eventos seguem a ordem das transações, não a dos commits: uma versão
+  // mais antiga pode chegar depois da nova, então só substitui a linha se a version for maior
+  const applyEvent = (event: UserEvent) =>
+    setUsers((current) => {
+      let next = current
+      for (const { type, user } of event.changes) {
+        if (type === 'deleted') next = next.filter((u) => u.id !== user.id)
+        if (type === 'updated') next = next.map((u) => (u.id === user.id && isNewer(user, u) ? user : u))
+      }
+      return next
+    })
+
   useEffect(() => {
     load()
+    return subscribeUserEvents((event) => (event.resync ? load() : applyEvent(event)), load)
   }, [])
 
   const onDelete = async (id?: number) => {
@@ -7,6 +7,7 @@ export type User = {
   jobTitle: string
   systemRole: SystemRole
   active: boolean
+  version?: number
 }
 
 
@@ -15,6 +16,58 @@ export type StatsResponse = {
   byRole?: Record<string, number>        // compat (se existir)
   byJobTitle?: Record<string, number>    // novo
   bySystemRole?: Record<SystemRole, number> // novo
+  eventId?: string                       // último evento SSE já incluído nos contadores
+}
+
+// evento "change" de GET /api/users/events (SSE)
+export type UserChange = {
+  type: 'created' | 'updated' | 'deleted'
+  user: User
+}
+
+export type UserEvent = {
+  changes: UserChange[]
+  // lote grande: changes vem vazio, recarregar a lista
+  resync?: boolean
+  stats: {
+    byJobTitle: Record<string, number>
+    bySystemRole: Record<string, number>
+    byActive: Record<string, number>
+  }
+}
+
+// POST /api/users/batch-get e /batch-patch
+export type UserBatch = {
+  items: User[]
+  missing: number[]
+}
+
+export type BatchPatchItem = {
+  id: number
+  version?: number
+  changes: Partial<User>
+}
+
+export type BatchPatchResult = {
+  updated: number
+  failed: number
+  results: { id: number; status: number; user: User | null; error: string | null }[]
+}
+
+// GET /api/users/stats/trends (buckets sem eventos não vêm)
+export type TrendsResponse = {
+  granularity: 'hour' | 'day'
+  from: string
+  to: string
+  groupBy: 'systemRole' | 'jobTitle' | 'active' | null
+  points: {
+    bucket: string
+    group: string | null
+    signups: number
+    activations: number
+    deactivations: number
+    deletions: number
+  }[]
 }
 
 export type UserFilters = {